@@ -0,0 +1,51 @@
+package com.mygdx.astar.benchmark;
+
+import com.mygdx.astar.MyVertex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Warmup;
+
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class HeuristicBenchmark {
+
+    /**
+     * Computes the closest box sum for every board state in the level sample.
+     *
+     * @param state the level and its board state sample
+     * @return the sum of the heuristic costs
+     */
+    @Benchmark
+    public int computeHeuristic(LevelState state) {
+        return this.computeAll(state, MyVertex.HeuristicMethod.CLOSEST_BOX);
+    }
+
+    /**
+     * Computes the closest box sum with box turns for every board state in the level sample.
+     *
+     * @param state the level and its board state sample
+     * @return the sum of the heuristic costs
+     */
+    @Benchmark
+    public int computeHeuristicWithTurns(LevelState state) {
+        return this.computeAll(state, MyVertex.HeuristicMethod.TURNS);
+    }
+
+    /**
+     * @param state the level and its board state sample
+     * @param heuristic the heuristic to use
+     * @return the sum of the heuristic costs, returned so the work isn't optimised away
+     */
+    private int computeAll(LevelState state, MyVertex.HeuristicMethod heuristic) {
+
+        int sum = 0;
+        for(int i = 0; i < state.sample.length; i++) {
+            state.sample[i].computeHeuristic(state.heuristics, heuristic);
+            sum += state.sample[i].getHeuristicCost();
+        }
+
+        return sum;
+    }
+}
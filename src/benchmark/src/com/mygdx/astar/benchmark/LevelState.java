@@ -0,0 +1,57 @@
+package com.mygdx.astar.benchmark;
+
+import com.mygdx.astar.Board;
+import com.mygdx.astar.Heuristics;
+import com.mygdx.astar.LevelReader;
+import com.mygdx.astar.MyVertex;
+import com.mygdx.astar.Solver;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+
+@State(Scope.Benchmark)
+public class LevelState {
+
+    // Turn cost used when benchmarking the turns heuristic
+    static final int turnCost = 1;
+
+    @Param({"1", "2", "3", "4", "5", "6", "7", "8", "9", "10"})
+    public int levelNumber;
+
+    Solver solver;
+    Heuristics heuristics;
+
+    // Board states along a solution of the level, from the start to the goal
+    MyVertex[] sample;
+
+    /**
+     * Loads the level from the working directory and solves it once to get a sample
+     * of the board states a search goes through.
+     *
+     * @throws IOException if the level can't be read
+     */
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+
+        this.solver = new Solver(new LevelReader().read(new File("Level" + this.levelNumber + ".tmx")));
+        this.heuristics = new Heuristics(this.solver.getGoalDistances(), this.solver.getTurnDistances(turnCost));
+
+        String moves = this.solver.solve(MyVertex.FCostMethod.BOTH, MyVertex.HeuristicMethod.CLOSEST_BOX, 0).getMoves();
+
+        // Replay the moves, keeping a copy of every state on the way
+        Board board = new Board(this.solver.getStaticMap(), this.solver.getLevel().getBoxes(), this.solver.getLevel().getPlayer());
+        ArrayList<MyVertex> path = new ArrayList<MyVertex>();
+        path.add(board.toVertex());
+        for(int i = 0; i < moves.length(); i++) {
+            board.move(moves.charAt(i));
+            path.add(board.toVertex());
+        }
+        this.sample = path.toArray(new MyVertex[path.size()]);
+    }
+}
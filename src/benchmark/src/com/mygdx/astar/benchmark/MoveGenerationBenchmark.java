@@ -0,0 +1,30 @@
+package com.mygdx.astar.benchmark;
+
+import com.mygdx.astar.MoveGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class MoveGenerationBenchmark {
+
+    /**
+     * Generates the successors of every board state in the level sample.
+     *
+     * @param state the level and its board state sample
+     * @param blackhole the sink for the generated moves
+     */
+    @Benchmark
+    public void calcPossibleMoves(LevelState state, Blackhole blackhole) {
+
+        MoveGenerator moveGenerator = state.solver.getMoveGenerator();
+
+        for(int i = 0; i < state.sample.length; i++) {
+            blackhole.consume(moveGenerator.calcPossibleMoves(state.sample[i]));
+        }
+    }
+}
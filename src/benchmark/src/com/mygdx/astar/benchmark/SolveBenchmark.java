@@ -0,0 +1,40 @@
+package com.mygdx.astar.benchmark;
+
+import com.mygdx.astar.MyVertex;
+import com.mygdx.astar.Solution;
+import com.mygdx.astar.Solver;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@Fork(1)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@State(Scope.Benchmark)
+public class SolveBenchmark {
+
+    @Param({"BOTH", "G_ONLY", "H_ONLY"})
+    public MyVertex.FCostMethod method;
+
+    @Param({"false", "true"})
+    public boolean boxMoves;
+
+    /**
+     * Runs a whole search on the level, distance tables included.
+     *
+     * @param state the level to solve
+     * @return the solution found
+     */
+    @Benchmark
+    public Solution runAlgorithm(LevelState state) {
+
+        Solver solver = new Solver(state.solver.getLevel());
+        solver.setNormalizePlayer(this.boxMoves);
+
+        return solver.solve(this.method, MyVertex.HeuristicMethod.CLOSEST_BOX, 0);
+    }
+}
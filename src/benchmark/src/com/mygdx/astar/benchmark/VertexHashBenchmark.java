@@ -0,0 +1,67 @@
+package com.mygdx.astar.benchmark;
+
+import com.mygdx.astar.MyVertex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@State(Scope.Benchmark)
+public class VertexHashBenchmark {
+
+    // Equal but distinct copies of the sample, as found when looking up the closed list
+    private MyVertex[] copies;
+
+    /**
+     * Copies every board state in the level sample.
+     *
+     * @param state the level and its board state sample
+     */
+    @Setup(Level.Trial)
+    public void setup(LevelState state) {
+
+        this.copies = new MyVertex[state.sample.length];
+        for(int i = 0; i < state.sample.length; i++) {
+            MyVertex vert = state.sample[i];
+            this.copies[i] = new MyVertex(vert.getBoxWords().clone(), vert.getPlayerCell(), vert.getHash());
+        }
+    }
+
+    /**
+     * @param state the level and its board state sample
+     * @return the sum of the hash codes
+     */
+    @Benchmark
+    public int vertexHashCode(LevelState state) {
+
+        int sum = 0;
+        for(int i = 0; i < state.sample.length; i++) sum += state.sample[i].hashCode();
+
+        return sum;
+    }
+
+    /**
+     * Compares each board state with its copy and with the next board state.
+     *
+     * @param state the level and its board state sample
+     * @return the number of equal pairs
+     */
+    @Benchmark
+    public int vertexEquals(LevelState state) {
+
+        int count = 0;
+        for(int i = 0; i < state.sample.length; i++) {
+            if(state.sample[i].equals(this.copies[i])) count++;
+            if(state.sample[i].equals(this.copies[(i + 1) % this.copies.length])) count++;
+        }
+
+        return count;
+    }
+}
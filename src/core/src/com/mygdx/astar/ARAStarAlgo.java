@@ -0,0 +1,254 @@
+package com.mygdx.astar;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+
+public class ARAStarAlgo extends AbstractSearchEngine {
+
+    // Weights are kept in tenths so weighted f() stays an integer for the bucketed open list
+    private static final int weightScale = 10;
+
+    private Heuristics heuristics;
+
+    // Search settings for the current run
+    private MyVertex.HeuristicMethod heuristic;
+    private int weight;
+    private long deadline;
+    private int vertexBudget;
+
+    // Every vertex reached with its lowest g() so far, kept across iterations
+    private HashMap<MyVertex, MyVertex> seen = new HashMap<MyVertex, MyVertex>();
+
+    // Lists of the current iteration, vertices improved after being expanded wait in the inconsistent list
+    private OpenList openList = new BucketOpenList();
+    private HashSet<MyVertex> closedList = new HashSet<MyVertex>();
+    private HashSet<MyVertex> inconsistentList = new HashSet<MyVertex>();
+
+    // Cheapest goal reached so far and the cost of the last one published
+    private MyVertex goal;
+    private int publishedCost = Integer.MAX_VALUE;
+
+    // Best solution published so far, its moves for other threads to replay, and how far from optimal it can be
+    private ArrayList<MyVertex> bestPath = new ArrayList<MyVertex>();
+    private volatile String bestMoves;
+    private volatile float bestBound = Float.POSITIVE_INFINITY;
+
+    /**
+     * Constructs an ARAStarAlgo object responsible for running anytime repairing A* on the
+     * solver level. A first solution is found quickly with the heuristic weighted up, then
+     * the weight is lowered step by step, reusing the vertices already reached, to publish
+     * better solutions until the weight reaches 1 or the time or vertex budget runs out.
+     * Cancelling only stops the improving, the best solution so far is still returned.
+     *
+     * @param solver the solver holding the level and its precomputed tables
+     */
+    public ARAStarAlgo(Solver solver) {
+        super(solver);
+    }
+
+    @Override
+    public ArrayList<MyVertex> runAlgorithm(MyVertex.FCostMethod method, MyVertex.HeuristicMethod heuristic, int turnCost) {
+
+        this.startRun(method, heuristic, turnCost);
+        this.heuristics = this.createHeuristics(heuristic, turnCost);
+        this.heuristic = heuristic;
+        this.weight = Math.max(weightScale, Math.round(this.solver.getInitialWeight() * weightScale));
+        this.deadline = this.solver.getTimeBudget() > 0 ? this.startTime + this.solver.getTimeBudget() * 1000000L : Long.MAX_VALUE;
+        this.vertexBudget = this.solver.getVertexBudget() > 0 ? this.solver.getVertexBudget() : Integer.MAX_VALUE;
+
+        int weightStep = Math.max(1, Math.round(this.solver.getWeightStep() * weightScale));
+
+        MyVertex rootVertex = this.createRoot();
+        rootVertex.computeHeuristic(this.heuristics, heuristic);
+        rootVertex.setgCost(0);
+        this.weighFCost(rootVertex);
+
+        this.seen.put(rootVertex, rootVertex);
+        this.openList.add(rootVertex);
+        if(rootVertex.checkGoal(this.staticMap.getGoalBits())) this.goal = rootVertex;
+
+        // Improve the path, publish it, then lower the weight and repair the lists for the next iteration
+        while(this.improvePath()) {
+
+            this.publish(Math.min((float) this.weight / weightScale, this.boundOfLists()));
+            if(this.weight == weightScale || this.bestBound <= 1) break;
+
+            this.weight = Math.max(weightScale, this.weight - weightStep);
+            this.reweighLists();
+        }
+
+        // A budget can stop an iteration after it already found a cheaper goal
+        if(this.goal != null && this.goal.getgCost() < this.publishedCost) this.publish(this.boundOfLists());
+
+        this.metrics.setClosedSize(this.seen.size());
+        this.finishMetrics(this.bestPath.size() - 1);
+
+        return this.bestPath;
+    }
+
+    /**
+     * Expands vertices in weighted f() order until the goal found can't be improved upon at
+     * the current weight. Vertices whose g() drops after they were expanded in this iteration
+     * are not expanded again, they wait in the inconsistent list for the next iteration.
+     *
+     * @return whether the iteration finished, false if it was stopped by a budget or cancelled
+     */
+    private boolean improvePath() {
+
+        while(!this.openList.isEmpty()) {
+
+            MyVertex currVert = this.openList.peek();
+            if(this.goal != null && this.goal.getgCost() * weightScale <= currVert.getfCost()) break;
+
+            if(this.metrics.getExpandedCount() % progressInterval == 0) {
+                this.progressExpanded = this.metrics.getExpandedCount();
+                if(this.cancelled || System.nanoTime() > this.deadline || this.seen.size() > this.vertexBudget) return false;
+            }
+
+            this.metrics.startLap();
+            this.openList.poll();
+            this.metrics.lapOpenList();
+            this.closedList.add(currVert);
+            this.metrics.lapClosedList();
+            this.metrics.countExpanded();
+
+            ArrayList<MyVertex> nextVerts = this.normalizePlayer ? this.moveGenerator.calcBoxMoves(currVert) : this.moveGenerator.calcPossibleMoves(currVert);
+            this.metrics.lapSuccessors();
+            this.metrics.countGenerated(nextVerts.size());
+
+            for(MyVertex vert : nextVerts) {
+
+                int newGCost = currVert.getgCost() + 1;
+                MyVertex known = this.seen.get(vert);
+                this.metrics.lapClosedList();
+
+                if(known == null) {
+
+                    this.computeSuccessorHeuristic(vert, currVert, this.heuristics, this.heuristic);
+                    this.metrics.lapHeuristic();
+
+                    vert.setgCost(newGCost);
+                    vert.setParent(currVert);
+                    this.weighFCost(vert);
+                    this.seen.put(vert, vert);
+                    this.openList.add(vert);
+                    this.metrics.lapOpenList();
+                    this.metrics.updateOpenPeak(this.openList.size());
+
+                    if(vert.checkGoal(this.staticMap.getGoalBits()) && (this.goal == null || newGCost < this.goal.getgCost())) this.goal = vert;
+                    continue;
+                }
+
+                if(newGCost >= known.getgCost()) {
+                    this.metrics.countDuplicate();
+                    continue;
+                }
+
+                known.setgCost(newGCost);
+                known.setParent(currVert);
+                known.setBoxMove(vert.getBoxMove());
+                this.weighFCost(known);
+                this.metrics.countReopened();
+
+                if(known.checkGoal(this.staticMap.getGoalBits()) && newGCost < this.goal.getgCost()) this.goal = known;
+
+                // Expanded vertices wait for the next iteration, queued ones move up
+                if(this.closedList.contains(known)) this.inconsistentList.add(known);
+                else if(this.openList.get(known) != null) this.openList.decreaseKey(known);
+                else this.openList.add(known);
+                this.metrics.lapOpenList();
+            }
+        }
+
+        return this.goal != null;
+    }
+
+    /**
+     * Computes the suboptimality bound the lists prove for the current goal, the goal cost
+     * over the lowest unweighted f() left to expand. Only holds for admissible heuristics.
+     *
+     * @return how many times longer than optimal the current goal can be at most
+     */
+    private float boundOfLists() {
+
+        int lowest = Integer.MAX_VALUE;
+
+        // The open list has no way to iterate, so every queued vertex is looked at through the seen table
+        for(MyVertex vert : this.seen.values()) {
+            if(vert.getOpenIndex() >= 0 || this.inconsistentList.contains(vert)) {
+                lowest = Math.min(lowest, vert.getgCost() + vert.getHeuristicCost());
+            }
+        }
+
+        if(lowest == Integer.MAX_VALUE || lowest >= this.goal.getgCost()) return 1;
+
+        return (float) this.goal.getgCost() / lowest;
+    }
+
+    /**
+     * Moves the inconsistent vertices back to the open list, recomputing every queued
+     * weighted f() for the lowered weight, and empties the closed list.
+     */
+    private void reweighLists() {
+
+        OpenList reweighed = new BucketOpenList();
+
+        while(!this.openList.isEmpty()) {
+            MyVertex vert = this.openList.poll();
+            this.weighFCost(vert);
+            reweighed.add(vert);
+        }
+
+        for(MyVertex vert : this.inconsistentList) {
+            this.weighFCost(vert);
+            reweighed.add(vert);
+        }
+
+        this.openList = reweighed;
+        this.inconsistentList.clear();
+        this.closedList.clear();
+    }
+
+    /**
+     * Sets the weighted f() cost of the vertex for the current weight, in tenths.
+     *
+     * @param vert the vertex whose g() and h() are set
+     */
+    private void weighFCost(MyVertex vert) {
+        vert.setfCost(vert.getgCost() * weightScale + vert.getHeuristicCost() * this.weight);
+    }
+
+    /**
+     * Backtracks the current goal into a path and makes it the best solution so far.
+     * Parents change as g() drops, so the path is copied out now rather than later.
+     *
+     * @param bound how many times longer than optimal the solution can be at most
+     */
+    private void publish(float bound) {
+
+        ArrayList<MyVertex> path = new ArrayList<MyVertex>();
+        for(MyVertex vert = this.goal; vert != null; vert = vert.getParent()) path.add(vert);
+        Collections.reverse(path);
+
+        this.bestPath = this.finishPath(path);
+        this.bestMoves = MoveString.encode(this.staticMap, this.bestPath);
+        this.bestBound = bound;
+        this.publishedCost = this.goal.getgCost();
+        this.progressBestCost = this.goal.getgCost();
+        this.metrics.setSuboptimalityBound(bound);
+
+        if(AStar.debugFlag) System.out.println("Weight " + (float) this.weight / weightScale + ": " + this.goal.getgCost() + " moves, bound " + bound);
+    }
+
+    @Override
+    public String getBestMoves() {
+        return this.bestMoves;
+    }
+
+    @Override
+    public float getBestBound() {
+        return this.bestBound;
+    }
+}
@@ -30,12 +30,14 @@ public class AStar extends ApplicationAdapter {
 
     // Enumerators
     private enum PukoState {LOAD_MAP, RUN_ALGO, RENDER}
-    private enum PlayerBoxCol {NO_MOVE, PUSH, PULL, FREE_SPACE}
 
     // Level loading constants
     private static final String mapPrefix = "Level";
     private static final String mapFileType = "tmx";
 
+    // Solutions are kept next to the game between runs
+    private static final String solutionDir = "solutions";
+
     // Texture names
     private static final String playerTexName = "player.png";
     private static final String boxTexName = "box.png";
@@ -78,19 +80,27 @@ public class AStar extends ApplicationAdapter {
     // Entity properties
     private ArrayList<Vector2> goals;
     private ArrayList<Vector2> boxes;
-    private ArrayList<Vector2> walls;
     private Vector2 player;
+    private Solver solver;
 
     // State properties
     private PukoState state = PukoState.LOAD_MAP;
     private int currentMapI = 1;
 
     // A* properties
-    private ArrayList<MyVertex> solution = new ArrayList<MyVertex>();
+    private String solution;
+    private Board board;
     private boolean runAlgo = false;
-    private boolean useTurns = false;
+    private SolveTask solveTask;
+    private boolean playingBest = false;
+    private MyVertex.HeuristicMethod heuristicMethod = MyVertex.HeuristicMethod.CLOSEST_BOX;
     private int turnCost = 0;
     private MyVertex.FCostMethod algoMethod = MyVertex.FCostMethod.BOTH;
+    private boolean normalizePlayer = false;
+    private Solver.Engine engine = Solver.Engine.ASTAR;
+    private int beamWidth = Solver.defaultBeamWidth;
+    private SolutionStore solutionStore;
+    private boolean useSolutionStore = true;
 
     // Render properties
     private int iteration = 0;
@@ -101,12 +111,12 @@ public class AStar extends ApplicationAdapter {
 	public void create() {
 
 	    // Initial game title
-        String num = df.format(this.stepRate);
-        Gdx.graphics.setTitle(mapPrefix + this.currentMapI + " " + num);
+        this.updateTitle();
 
 		this.batch = new SpriteBatch();
 		this.assetManager = new AssetManager();
 		this.tiledHandler = new TiledHandler(this);
+		this.solutionStore = new SolutionStore(Gdx.files.local(AStar.solutionDir).file(), SolutionStore.defaultMaxBytes);
 
 		this.loadTextures();
         this.changeMap(currentMapI);
@@ -126,14 +136,14 @@ public class AStar extends ApplicationAdapter {
 	        // Loading map
             case LOAD_MAP:
 
-                this.goals = this.tiledHandler.getEntities((TiledMapTileLayer) this.currentMap.getLayers().get(AStar.goalLayer), AStar.goalType);
-                this.boxes = this.tiledHandler.getEntities((TiledMapTileLayer) this.currentMap.getLayers().get(AStar.boxLayer), AStar.boxType);
-                this.walls = this.tiledHandler.getEntities((TiledMapTileLayer) this.currentMap.getLayers().get(AStar.baseLayer), AStar.wallType);
-                this.player = this.tiledHandler.getEntities((TiledMapTileLayer) this.currentMap.getLayers().get(AStar.playerLayer), AStar.playerType).get(0).cpy();
+                Level level = this.tiledHandler.createLevel(this.currentMap, mapPrefix + this.currentMapI);
+                this.goals = level.getGoals();
+                this.boxes = level.getBoxes();
+                this.player = level.getPlayer();
+                this.solver = new Solver(level);
 
                 if(AStar.debugFlag) DebugPrint.getInstance().printVectorList("Goals", this.goals);
                 if(AStar.debugFlag) DebugPrint.getInstance().printVectorList("Boxes", this.boxes);
-                if(AStar.debugFlag) DebugPrint.getInstance().printVectorList("Walls", this.walls);
                 if(AStar.debugFlag) DebugPrint.getInstance().printVector("Player", this.player);
                 this.state = PukoState.RUN_ALGO;
                 break;
@@ -141,11 +151,12 @@ public class AStar extends ApplicationAdapter {
             // Running A*
             case RUN_ALGO:
 
-                if(runAlgo) {
+                // Start the search on a worker thread so the map keeps rendering
+                if(this.runAlgo && this.solveTask == null) {
 
                     // Inform which algorithm is running
                     if(this.algoMethod.equals(MyVertex.FCostMethod.BOTH)) {
-                        if (this.useTurns)
+                        if (this.heuristicMethod.equals(MyVertex.HeuristicMethod.TURNS))
                             System.out.println("Starting A* with heuristic addition: box direction changes with cost: " + this.turnCost);
                         else
                             System.out.println("Starting A* with manhattan distance heuristic with obstacle consideration");
@@ -155,73 +166,69 @@ public class AStar extends ApplicationAdapter {
                         System.out.println("Starting greedy search with manhattan distance with obstacle consideration");
                     }
 
-                    // Start timer
-                    long startTime = System.currentTimeMillis();
-
                     // Run A*
-                    AStarAlgo astar = new AStarAlgo(this);
-                    this.solution = astar.runAlgorithm(this.algoMethod, this.useTurns, this.turnCost);
+                    this.solver.setNormalizePlayer(this.normalizePlayer);
+                    this.solver.setEngine(this.engine);
+                    this.solver.setBeamWidth(this.beamWidth);
+                    this.solver.setSolutionStore(this.useSolutionStore ? this.solutionStore : null);
+                    this.solveTask = new SolveTask(this.solver, this.algoMethod, this.heuristicMethod, this.turnCost);
+                    this.solveTask.start();
+                }
 
-                    // Stop timer
-                    long stopTime = System.currentTimeMillis();
+                // Show progress until the worker hands back its result
+                if(this.solveTask != null) {
+
+                    if(!this.solveTask.isDone()) {
+                        this.updateTitle();
+
+                        // Play the best solution an anytime search found so far while it keeps improving it
+                        String best = this.solveTask.getBestMoves();
+                        if(best != null && (!this.playingBest || !best.equals(this.solution))) {
+                            this.solution = best;
+                            this.startPlayback();
+                            this.playingBest = true;
+                        }
+                        if(this.playingBest) this.renderPlayback();
+                        break;
+                    }
 
-                    long elapsedTime = stopTime - startTime;
-                    System.out.println("Execution time: " + elapsedTime / 1000.0f + "s");
+                    Solution result = this.solveTask.getSolution();
+                    boolean cancelled = this.solveTask.isCancelled();
+                    this.solveTask = null;
+                    this.playingBest = false;
+                    this.solution = result.getMoves();
+
+                    if(result.getMetrics().isFromStore()) System.out.println("Found stored path");
+                    else if(result.isSolved()) System.out.println("Found path");
+                    else if(cancelled) System.out.println("Search cancelled");
+                    else System.out.println("Error: no open list remains!");
+                    if(result.getMetrics().getTruncatedCount() > 0) System.out.println("Beam truncated layers: " + result.getMetrics().getTruncatedCount());
+                    if(result.getMetrics().getSuboptimalityBound() > 0) System.out.println("Suboptimality bound: " + result.getMetrics().getSuboptimalityBound());
+                    if(result.getMetrics().getCacheHitCount() > 0) System.out.println("Heuristic cache hits: " + result.getMetrics().getCacheHitCount()
+                            + ", misses: " + result.getMetrics().getCacheMissCount());
+                    System.out.println("Execution time: " + result.getElapsedTime() / 1000.0f + "s");
+                    System.out.println("Expanded: " + result.getMetrics().getExpandedCount() + ", generated: " + result.getMetrics().getGeneratedCount()
+                            + ", open list peak: " + result.getMetrics().getOpenPeak());
 
                     this.runAlgo = false;
-                    this.iteration = 0;
-                    this.accumulator = 0;
+                    this.updateTitle();
+
+                    // Keep showing the start state if no solution was found
+                    if(this.solution == null) break;
+
+                    this.startPlayback();
                     this.state = PukoState.RENDER;
                 }
                 break;
 
             // Rendering solution
             case RENDER:
-
-                // Update accumulator to step through the solution
-                if(this.iteration != 0) {
-                    this.accumulator += Gdx.graphics.getDeltaTime();
-                    if(this.accumulator >= AStar.stepRate) {
-                        this.accumulator = this.accumulator - AStar.stepRate;
-                        this.iteration++;
-                    }
-                }
-
-                this.batch.setProjectionMatrix(camera.combined);
-
-                Gdx.gl.glClearColor( 103/255f, 69/255f, 117/255f, 1 );
-                Gdx.gl.glClear( GL20.GL_COLOR_BUFFER_BIT | GL20.GL_DEPTH_BUFFER_BIT );
-
-                this.tiledHandler.drawTileMap(this.currentMap, this.camera, this.batch);
-
-                // Draw dynamic entities
-                this.batch.begin();
-
-                this.tiledHandler.drawEntities(this.goals, this.goalTex);
-
-                // Playback solution
-                int index = this.solution.size() - 1 - this.iteration;
-                if(this.iteration == 0) this.iteration++;
-
-                // Stop at goal state
-                if(index < 0) {
-                    this.iteration = this.solution.size() + 1;
-                    index = 0;
-                }
-
-                MyVertex currState = this.solution.get(index);
-
-                ArrayList<Vector2> player = new ArrayList<Vector2>();
-                player.add(currState.getPlayer());
-                this.tiledHandler.drawEntities(player, this.playerTex);
-                this.tiledHandler.drawEntities(currState.getBoxes(), this.boxTex);
-                this.batch.end();
-
+                this.renderPlayback();
                 break;
         }
 
         // Render static map while waiting for user input or A* termination
-        if(!this.state.equals(PukoState.RENDER)) {
+        if(!this.state.equals(PukoState.RENDER) && !this.playingBest) {
 
             this.batch.setProjectionMatrix(camera.combined);
 
@@ -246,6 +253,8 @@ public class AStar extends ApplicationAdapter {
 	@Override
 	public void dispose() {
 
+	    if(this.solveTask != null) this.solveTask.cancel();
+
 		this.batch.dispose();
 		this.assetManager.dispose();
 		this.playerTex.dispose();
@@ -254,12 +263,66 @@ public class AStar extends ApplicationAdapter {
 		if(this.currentMap != null) this.currentMap.dispose();
 	}
 
+    /**
+     * Starts playing the solution back from the starting state.
+     */
+    private void startPlayback() {
+        this.board = new Board(this.solver.getStaticMap(), this.boxes, this.player);
+        this.iteration = 0;
+        this.accumulator = 0;
+    }
+
+    /**
+     * Steps the solution playback on as the step rate says and draws the board at the current step.
+     */
+    private void renderPlayback() {
+
+        // Update accumulator to step through the solution
+        if(this.iteration != 0) {
+            this.accumulator += Gdx.graphics.getDeltaTime();
+            if(this.accumulator >= AStar.stepRate) {
+                this.accumulator = this.accumulator - AStar.stepRate;
+                this.iteration++;
+            }
+        }
+
+        this.batch.setProjectionMatrix(camera.combined);
+
+        Gdx.gl.glClearColor( 103/255f, 69/255f, 117/255f, 1 );
+        Gdx.gl.glClear( GL20.GL_COLOR_BUFFER_BIT | GL20.GL_DEPTH_BUFFER_BIT );
+
+        this.tiledHandler.drawTileMap(this.currentMap, this.camera, this.batch);
+
+        // Draw dynamic entities
+        this.batch.begin();
+
+        this.tiledHandler.drawEntities(this.goals, this.goalTex);
+
+        // Playback solution, moves are applied to the board as the steps come up
+        int step = this.iteration;
+        if(this.iteration == 0) this.iteration++;
+
+        // Stop at goal state
+        if(step > this.solution.length()) {
+            this.iteration = this.solution.length() + 1;
+            step = this.solution.length();
+        }
+
+        while(this.board.getMoveCount() < step) this.board.move(this.solution.charAt(this.board.getMoveCount()));
+
+        ArrayList<Vector2> player = new ArrayList<Vector2>();
+        player.add(this.board.getPlayer());
+        this.tiledHandler.drawEntities(player, this.playerTex);
+        this.tiledHandler.drawEntities(this.board.getBoxes(), this.boxTex);
+        this.batch.end();
+    }
+
     /**
      * Processes keyboard events and sets related flags.
      */
     private void processKeyboard() {
 
-        if(this.state.equals(PukoState.RUN_ALGO) || this.state.equals(PukoState.RENDER) && !runAlgo) {
+        if((this.state.equals(PukoState.RUN_ALGO) || this.state.equals(PukoState.RENDER)) && !runAlgo) {
 
             // Increase level
             if(Gdx.input.isKeyJustPressed(Input.Keys.UP)) {
@@ -272,8 +335,7 @@ public class AStar extends ApplicationAdapter {
                 if(previousMapI != this.currentMapI) {
 
                     if(this.changeMap(this.currentMapI)) {
-                        String num = df.format(this.stepRate);
-                        Gdx.graphics.setTitle(mapPrefix + this.currentMapI + " " + num);
+                        this.updateTitle();
                         this.state = PukoState.LOAD_MAP;
                     } else this.currentMapI = previousMapI;
                 }
@@ -289,20 +351,22 @@ public class AStar extends ApplicationAdapter {
 
                 if(previousMapI != this.currentMapI) {
                     if(this.changeMap(this.currentMapI)) {
-                        String num = df.format(this.stepRate);
-                        Gdx.graphics.setTitle(mapPrefix + this.currentMapI + " " + num);
+                        this.updateTitle();
                         this.state = PukoState.LOAD_MAP;
                     } else this.currentMapI = previousMapI;
                 }
             }
         }
 
+        // Cancel the running search
+        if(this.solveTask != null && Gdx.input.isKeyJustPressed(Input.Keys.C)) this.solveTask.cancel();
+
         // Waiting for input to run algorithm
 	    if(!runAlgo) {
 
             // Run A* with manhattan distance + obstacle consideration
             if (Gdx.input.isKeyJustPressed(Input.Keys.Q)) {
-                this.useTurns = false;
+                this.heuristicMethod = MyVertex.HeuristicMethod.CLOSEST_BOX;
                 this.runAlgo = true;
                 this.turnCost = 0;
                 this.algoMethod = MyVertex.FCostMethod.BOTH;
@@ -311,7 +375,7 @@ public class AStar extends ApplicationAdapter {
 
             // Run A* with manhattan distance + obstacle consideration + number of box turns
             if (Gdx.input.isKeyJustPressed(Input.Keys.W)) {
-                this.useTurns = true;
+                this.heuristicMethod = MyVertex.HeuristicMethod.TURNS;
                 this.runAlgo = true;
                 this.turnCost = 1;
                 this.algoMethod = MyVertex.FCostMethod.BOTH;
@@ -320,7 +384,7 @@ public class AStar extends ApplicationAdapter {
 
             // Run A* with manhattan distance + obstacle consideration + number of box turns * 2 (player has to make minimum of 2 moves to change box direction)
             if (Gdx.input.isKeyJustPressed(Input.Keys.E)) {
-                this.useTurns = true;
+                this.heuristicMethod = MyVertex.HeuristicMethod.TURNS;
                 this.runAlgo = true;
                 this.turnCost = 2;
                 this.algoMethod = MyVertex.FCostMethod.BOTH;
@@ -329,7 +393,7 @@ public class AStar extends ApplicationAdapter {
 
             // Run uniform cost search
             if (Gdx.input.isKeyJustPressed(Input.Keys.R)) {
-                this.useTurns = false;
+                this.heuristicMethod = MyVertex.HeuristicMethod.CLOSEST_BOX;
                 this.runAlgo = true;
                 this.turnCost = 0;
                 this.algoMethod = MyVertex.FCostMethod.G_ONLY;
@@ -338,29 +402,103 @@ public class AStar extends ApplicationAdapter {
 
             // Run greedy search
             if (Gdx.input.isKeyJustPressed(Input.Keys.T)) {
-                this.useTurns = false;
+                this.heuristicMethod = MyVertex.HeuristicMethod.CLOSEST_BOX;
                 this.runAlgo = true;
                 this.turnCost = 0;
                 this.algoMethod = MyVertex.FCostMethod.H_ONLY;
                 this.state = PukoState.RUN_ALGO;
             }
+
+            // Toggle expanding box moves only, with the player normalised within its region
+            if (Gdx.input.isKeyJustPressed(Input.Keys.P)) {
+                this.normalizePlayer = !this.normalizePlayer;
+                System.out.println("Box moves only: " + (this.normalizePlayer ? "on" : "off"));
+            }
+
+            // Toggle the memory bounded iterative deepening engine
+            if (Gdx.input.isKeyJustPressed(Input.Keys.I)) {
+                this.engine = this.engine.equals(Solver.Engine.IDA_STAR) ? Solver.Engine.ASTAR : Solver.Engine.IDA_STAR;
+                System.out.println("Search engine: " + this.engine);
+            }
+
+            // Toggle the bidirectional engine, searching from the start and the goal placements
+            if (Gdx.input.isKeyJustPressed(Input.Keys.B)) {
+                this.engine = this.engine.equals(Solver.Engine.BIDIRECTIONAL) ? Solver.Engine.ASTAR : Solver.Engine.BIDIRECTIONAL;
+                System.out.println("Search engine: " + this.engine);
+            }
+
+            // Toggle the parallel engine, spreading the search over every core
+            if (Gdx.input.isKeyJustPressed(Input.Keys.H)) {
+                this.engine = this.engine.equals(Solver.Engine.HDA_STAR) ? Solver.Engine.ASTAR : Solver.Engine.HDA_STAR;
+                System.out.println("Search engine: " + this.engine);
+            }
+
+            // Toggle the parallel breadth-first engine, the multi-core counterpart of uniform cost search
+            if (Gdx.input.isKeyJustPressed(Input.Keys.L)) {
+                this.engine = this.engine.equals(Solver.Engine.PARALLEL_BFS) ? Solver.Engine.ASTAR : Solver.Engine.PARALLEL_BFS;
+                System.out.println("Search engine: " + this.engine);
+            }
+
+            // Toggle the anytime engine, cancelling it keeps the best solution found so far
+            if (Gdx.input.isKeyJustPressed(Input.Keys.A)) {
+                this.engine = this.engine.equals(Solver.Engine.ARA_STAR) ? Solver.Engine.ASTAR : Solver.Engine.ARA_STAR;
+                System.out.println("Search engine: " + this.engine);
+            }
+
+            // Toggle the beam search engine, memory bound by the beam width
+            if (Gdx.input.isKeyJustPressed(Input.Keys.K)) {
+                this.engine = this.engine.equals(Solver.Engine.BEAM) ? Solver.Engine.ASTAR : Solver.Engine.BEAM;
+                System.out.println("Search engine: " + this.engine + ", beam width: " + this.beamWidth);
+            }
+
+            // Toggle looking up and storing solutions on disk
+            if (Gdx.input.isKeyJustPressed(Input.Keys.S)) {
+                this.useSolutionStore = !this.useSolutionStore;
+                System.out.println("Stored solutions: " + (this.useSolutionStore ? "on" : "off"));
+            }
+
+            // Halve or double the beam width
+            if (Gdx.input.isKeyJustPressed(Input.Keys.LEFT_BRACKET)) {
+                this.beamWidth = Math.max(1, this.beamWidth / 2);
+                System.out.println("Beam width: " + this.beamWidth);
+            }
+            if (Gdx.input.isKeyJustPressed(Input.Keys.RIGHT_BRACKET)) {
+                this.beamWidth = Math.min(1 << 24, this.beamWidth * 2);
+                System.out.println("Beam width: " + this.beamWidth);
+            }
         }
 
         // Increase solution stepping speed
         if(Gdx.input.isKeyJustPressed(Input.Keys.MINUS)) {
             this.stepRate += AStar.stepIncrement;
             this.stepRate = MathUtils.clamp(this.stepRate, AStar.minStepRate, AStar.maxStepRate);
-            String num = df.format(this.stepRate);
-            Gdx.graphics.setTitle(mapPrefix + this.currentMapI + " " + num);
+            this.updateTitle();
         }
 
         // Decrease solution stepping speed
         if(Gdx.input.isKeyJustPressed(Input.Keys.PLUS)) {
             this.stepRate -= AStar.stepIncrement;
             this.stepRate = MathUtils.clamp(this.stepRate, AStar.minStepRate, AStar.maxStepRate);
-            String num = df.format(this.stepRate);
-            Gdx.graphics.setTitle(mapPrefix + this.currentMapI + " " + num);
+            this.updateTitle();
+        }
+    }
+
+    /**
+     * Sets the window title to the current level and step rate, plus the search
+     * progress and the best solution so far while a search is running.
+     */
+    private void updateTitle() {
+
+        String title = mapPrefix + this.currentMapI + " " + df.format(this.stepRate);
+
+        if(this.solveTask != null) {
+            String best = this.solveTask.getBestMoves();
+            title += " - expanded: " + this.solveTask.getExpandedCount() + ", best f(): " + this.solveTask.getBestCost();
+            if(best != null) title += ", best so far: " + best.length() + " moves, bound " + df.format(this.solveTask.getBestBound());
+            title += " (C to cancel)";
         }
+
+        Gdx.graphics.setTitle(title);
     }
 
     /**
@@ -399,203 +537,6 @@ public class AStar extends ApplicationAdapter {
         return true;
     }
 
-    /**
-     * Computes the possible vertices to reach from the given starting vertex using Pukoban rules.
-     *
-     * @param vert the vertex to use as starting point
-     * @return the list of vertices possible from the given starting vertex
-     */
-    public ArrayList<MyVertex> calcPossibleMoves(MyVertex vert) {
-
-	    ArrayList<MyVertex> moves = new ArrayList<MyVertex>();
-	    Vector2 pCoords = vert.getPlayer();
-
-	    Vector2 moveRight = new Vector2(pCoords.x + 1, pCoords.y);
-        Vector2 moveLeft = new Vector2(pCoords.x - 1, pCoords.y);
-        Vector2 moveUp = new Vector2(pCoords.x, pCoords.y + 1);
-        Vector2 moveDown = new Vector2(pCoords.x, pCoords.y - 1);
-
-        // Check possible directions for Player, disregards boxes
-        boolean validRight = !this.collisionCheck(moveRight);
-        boolean validLeft = !this.collisionCheck(moveLeft);
-        boolean validUp = !this.collisionCheck(moveUp);
-        boolean validDown = !this.collisionCheck(moveDown);
-
-        Boolean[] bools = {validRight, validLeft, validUp, validDown};
-        if(AStar.debugFlag) DebugPrint.getInstance().printFlags("MoveFlags", bools);
-
-        // Simulate all board states for every player direction possible from starting state
-        if(validRight) {
-            moves.addAll(this.simulatePukobanState(vert, moveRight, new Vector2(1, 0)));
-        }
-
-        if(validLeft) {
-            moves.addAll(this.simulatePukobanState(vert, moveLeft, new Vector2(-1, 0)));
-        }
-
-        if(validUp) {
-            moves.addAll(this.simulatePukobanState(vert, moveUp, new Vector2(0, 1)));
-        }
-
-        if(validDown) {
-            moves.addAll(this.simulatePukobanState(vert, moveDown, new Vector2(0, -1)));
-        }
-
-        return moves;
-    }
-
-    /**
-     * Computes the new box positions using the player coordinates and the player movement direction.
-     * Takes in consideration whether the box movement is a pull or a push.
-     *
-     * @param vert the vertex to use as starting point
-     * @param pCoords the player coordinates after simulating movement
-     * @param direction the direction used to simulate movement
-     * @param isPull whether the move is a pull or a push
-     * @return the list with the new box positions
-     */
-    private ArrayList<Vector2> moveBoxes(MyVertex vert, Vector2 pCoords, Vector2 direction, boolean isPull) {
-
-        ArrayList<Vector2> boxes = vert.getBoxes();
-        ArrayList<Vector2> tempBoxes = new ArrayList<Vector2>();
-
-        for (Vector2 box : boxes) {
-            tempBoxes.add(new Vector2(box.x, box.y));
-        }
-
-        // Pulling box
-        if(isPull) {
-
-            Vector2 oppositeDir = new Vector2(direction.x * -1, direction.y * -1);
-            Vector2 pullBox = pCoords.cpy();
-            pullBox = pullBox.add(oppositeDir).add(oppositeDir);
-
-            int index = tempBoxes.indexOf(pullBox);
-            Vector2 newBox = tempBoxes.get(index);
-
-            newBox = newBox.add(direction);
-            tempBoxes.set(index, newBox);
-
-        // Pushing box
-        } else {
-
-            int index = tempBoxes.indexOf(pCoords);
-            Vector2 newBox = tempBoxes.get(index);
-
-            newBox = newBox.add(direction);
-            tempBoxes.set(index, newBox);
-        }
-
-        return tempBoxes;
-    }
-
-    /**
-     * Simulates the effect of player movement on the map boxes. Returns the new board state
-     * created by that movement, if any.
-     *
-     * @param vert the vertex to use as starting point
-     * @param pCoords the player coordinates after simulating movement
-     * @param direction the direction used to simulate movement
-     * @return the possible board states created by this movement
-     */
-    private ArrayList<MyVertex> simulatePukobanState(MyVertex vert, Vector2 pCoords, Vector2 direction) {
-
-	    ArrayList<MyVertex> verts = new ArrayList<MyVertex>();
-
-	    switch(this.simulatePlayerMove(vert, pCoords, direction)) {
-
-            case PUSH:
-                verts.add(new MyVertex(this, this.moveBoxes(vert, pCoords, direction, false), pCoords));
-                break;
-
-            case PULL:
-                verts.add(new MyVertex(this, this.moveBoxes(vert, pCoords, direction, true), pCoords));
-                verts.add(new MyVertex(this, vert.getBoxes(), pCoords));
-                break;
-
-            case FREE_SPACE:
-                verts.add(new MyVertex(this, vert.getBoxes(), pCoords));
-                break;
-
-            default:
-                break;
-        }
-
-        return verts;
-    }
-
-    /**
-     * Simulates the effects of player movement on the map boxes. Checks whether the movement
-     * can be a push or pull, and also if the movement isn't possible due to box collision.
-     *
-     * @param vert the vertex to use as starting point
-     * @param pCoords the player coordinates after simulating movement
-     * @param direction the direction used to simulate movement
-     * @return the enumerator describing the type of movement that occurred
-     */
-    private PlayerBoxCol simulatePlayerMove(MyVertex vert, Vector2 pCoords, Vector2 direction) {
-
-	    ArrayList<Vector2> boxes = vert.getBoxes();
-
-        // Player/Box collision
-        int index = boxes.indexOf(pCoords);
-
-        // Box is pushed
-        if(index != -1) {
-
-            Vector2 boxCoords = boxes.get(index).cpy();
-            boxCoords = boxCoords.add(direction);
-
-            // Box can move
-            if(!this.collisionCheck(boxCoords) && !this.boxCollision(boxes, boxCoords)) {
-                return PlayerBoxCol.PUSH;
-            } else return PlayerBoxCol.NO_MOVE;
-
-        // Free space, might pull or not
-        } else {
-
-            Vector2 oppositeDir = new Vector2(direction.x * -1, direction.y * -1);
-            Vector2 checkForBox = pCoords.cpy();
-            checkForBox = checkForBox.add(oppositeDir).add(oppositeDir);
-
-            // Box to the opposite side of player
-            if(boxes.contains(checkForBox)) {
-                return PlayerBoxCol.PULL;
-            // No boxes for pushing/pulling
-            } else return PlayerBoxCol.FREE_SPACE;
-        }
-    }
-
-    /**
-     * Checks whether the given coordinates collide with the existing box coordinates.
-     *
-     * @param boxes the list of box coordinates to check
-     * @param coords the coordinates to use
-     * @return whether collision happened
-     */
-    private boolean boxCollision(ArrayList<Vector2> boxes, Vector2 coords) {
-	    return boxes.contains(coords);
-    }
-
-    /**
-     * Checks for map boundary collision and wall collisions using the given coordinates.
-     *
-     * @param coords the coordinates to use
-     * @return whether collision happened
-     */
-    public boolean collisionCheck(Vector2 coords) {
-
-	    if(coords.x < 0 || coords.y < 0) {
-	        return true;
-        } else if(coords.x > this.tileMapSize.x - 1 || coords.y > this.tileMapSize.y - 1) {
-	        return true;
-        } else if(this.walls.contains(coords)) {
-	        return true;
-        }
-
-        return false;
-    }
-
     /**
      * Loads the textures needed for drawing the game.
      */
@@ -638,25 +579,4 @@ public class AStar extends ApplicationAdapter {
     public SpriteBatch getBatch() {
 	    return this.batch;
     }
-
-    /**
-     * @return the list of coordinates of each goal for this game
-     */
-    public ArrayList<Vector2> getGoals() {
-        return this.goals;
-    }
-
-    /**
-     * @return the list of coordinates of each box for the current map state
-     */
-    public ArrayList<Vector2> getBoxes() {
-        return this.boxes;
-    }
-
-    /**
-     * @return the coordinates of the player for the current map state
-     */
-    public Vector2 getPlayer() {
-        return this.player;
-    }
-}
+}
\ No newline at end of file
@@ -1,160 +1,231 @@
 package com.mygdx.astar;
 
-import com.badlogic.gdx.math.Vector2;
-
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashSet;
-import java.util.LinkedList;
 
-public class AStarAlgo {
+public class AStarAlgo extends AbstractSearchEngine {
 
-    private AStar astar;
+    private Heuristics heuristics;
+    private HeuristicCache heuristicCache;
 
-    // A* lists
-    private LinkedList<MyVertex> openList = new LinkedList<MyVertex>();
-    private HashSet<MyVertex> closedList = new HashSet<MyVertex>();
+    // Every node reached, queued or expanded, with the open list ordering them by index
+    private NodeStore arena;
+    private ArenaOpenList openList;
 
     /**
-     * Constructs an AStarAlgo object responsible for running
-     * the A* algorithm on the current map.
+     * Constructs an AStarAlgo object responsible for running the A* algorithm on the solver
+     * level. Nodes are kept in a node store instead of vertex objects, with parents as node
+     * indices, so the only objects left behind by an expansion are the successors being looked
+     * at and the heap the garbage collector has to keep tracing stays a few large arrays however
+     * long the search runs. With external memory set on the solver the nodes live in
+     * memory-mapped files instead, removed when the search ends.
      *
-     * @param astar the main class instance
+     * @param solver the solver holding the level and its precomputed tables
      */
-    public AStarAlgo(AStar astar) {
-        this.astar = astar;
+    public AStarAlgo(Solver solver) {
+        super(solver);
+        this.arena = solver.createNodeStore();
+        this.openList = new ArenaOpenList(this.arena);
     }
 
-    /**
-     * Runs the A* algorithm using the current loaded map. Returns the
-     * path taken to reach the solution.
-     *
-     * @param method the method to use for calculating f()
-     * @param useTurns whether to consider turns in the heuristic cost
-     * @param turnCost the cost of boxes changing direction
-     * @return the path taken to reach the solution
-     */
-    public ArrayList<MyVertex> runAlgorithm(MyVertex.FCostMethod method, boolean useTurns, int turnCost) {
+    @Override
+    public ArrayList<MyVertex> runAlgorithm(MyVertex.FCostMethod method, MyVertex.HeuristicMethod heuristic, int turnCost) {
 
-        ArrayList<Vector2> boxes = astar.getBoxes();
-        Vector2 pCoords = astar.getPlayer();
+        this.startRun(method, heuristic, turnCost);
+        this.heuristics = this.createHeuristics(heuristic, turnCost);
+        this.heuristicCache = this.solver.getHeuristicCache(heuristic, turnCost);
 
-        // Compute f() for the starting vertex
-        MyVertex rootVertex = new MyVertex(this.astar, boxes, pCoords);
+        MyVertex rootVertex = this.createRoot();
 
         // Compute h() cost if not running uniform cost search
-        if(!method.equals(MyVertex.FCostMethod.G_ONLY)) {
-            if (useTurns) rootVertex.computeHeuristicWithTurns(turnCost);
-            else rootVertex.computeHeuristic();
-        }
-
+        if(!method.equals(MyVertex.FCostMethod.G_ONLY)) this.computeHeuristic(rootVertex, this.heuristics, heuristic);
         rootVertex.setgCost(0);
-        rootVertex.computeFCost(method);
-
-        // Add root vertex and run the iterations
-        this.openList.add(rootVertex);
-
-        // Find solution
-        MyVertex runVert;
-        while(true) {
-            if(this.openList.size() <= 0) System.out.println("Error: no open list remains!");
-            runVert = this.openList.get(0);
-            if(runVert.checkGoal()) {
-                this.closedList.add(runVert);
-                this.openList.remove(runVert);
-                break;
+
+        int goalNode;
+        ArrayList<MyVertex> path;
+        try {
+
+            int rootNode = this.store(rootVertex, -1);
+            this.openList.add(rootNode, rootVertex.computeFCost(method));
+
+            // Find solution
+            while(true) {
+
+                // No solution once the open list runs out or the search is cancelled
+                if(this.openList.isEmpty() || this.cancelled) {
+                    this.finishMetrics(-1);
+                    return new ArrayList<MyVertex>();
+                }
+
+                goalNode = this.openList.peek();
+
+                if(this.metrics.getExpandedCount() % progressInterval == 0) {
+                    this.progressExpanded = this.metrics.getExpandedCount();
+                    this.progressBestCost = this.arena.getOpenCost(goalNode);
+                }
+
+                if(this.arena.checkGoal(goalNode, this.staticMap.getGoalBits())) {
+                    this.openList.poll();
+                    break;
+                }
+                this.doIterations(method, goalNode, heuristic);
             }
-            this.doIterations(method, runVert, useTurns, turnCost);
+
+            if(AStar.debugFlag) System.out.println("Node store: " + this.arena.size() + " nodes in " + this.arena.getAllocatedBytes() + " bytes");
+            if(AStar.debugFlag && this.heuristicCache != null) System.out.println("Heuristic cache hit rate: " + this.heuristicCache.getHitRate());
+
+            path = this.backtrack(goalNode);
+
+        } catch(IllegalStateException e) {
+
+            // The external memory is full or unusable, give up like running out of memory
+            System.out.println("Error: " + e.getMessage());
+            this.finishMetrics(-1);
+            return new ArrayList<MyVertex>();
+
+        } finally {
+            this.arena.close();
         }
 
-        System.out.println("Found path");
+        path = this.finishPath(path);
+        this.finishMetrics(path.size() - 1);
 
-        return this.backtrack(runVert);
+        return path;
     }
 
     /**
-     * Finds the path from the goal state to the initial state by backtracking.
+     * Expands the node, adding the successors not reached before to the arena and the open
+     * list, and lowering g() of queued successors reached more cheaply through it. Nodes
+     * no longer queued were expanded already and are skipped.
      *
-     * @param goalState the solution map state
-     * @return the list of map states to get from the start to the finish of the Pukoban puzzle
+     * @param method the method to use for calculating f()
+     * @param currNode the index of the node to expand
+     * @param heuristic the heuristic to use for calculating h()
      */
-    private ArrayList<MyVertex> backtrack(MyVertex goalState) {
+    private void doIterations(MyVertex.FCostMethod method, int currNode, MyVertex.HeuristicMethod heuristic) {
 
-        ArrayList<MyVertex> verts = new ArrayList<MyVertex>();
-        verts.add(goalState);
+        this.metrics.startLap();
+        this.openList.poll();
+        this.metrics.lapOpenList();
+        this.metrics.countExpanded();
+
+        MyVertex currVert = this.arena.toVertex(currNode);
+        ArrayList<MyVertex> nextVerts = this.normalizePlayer ? this.moveGenerator.calcBoxMoves(currVert) : this.moveGenerator.calcPossibleMoves(currVert);
+        this.metrics.lapSuccessors();
+        this.metrics.countGenerated(nextVerts.size());
+
+        int newGCost = currVert.getgCost() + 1;
+
+        for(MyVertex vert : nextVerts) {
+
+            int node = this.arena.find(vert.getBoxWords(), vert.getPlayerCell(), vert.getHash());
+            this.metrics.lapClosedList();
 
-        MyVertex currVert = goalState;
+            // Reached for the first time
+            if(node < 0) {
 
-        while(true) {
+                // Compute h() cost if not running uniform cost search
+                if(!method.equals(MyVertex.FCostMethod.G_ONLY)) this.computeSuccessorHeuristic(vert, currVert, this.heuristics, heuristic);
+                vert.setgCost(newGCost);
+                this.metrics.lapHeuristic();
+
+                this.openList.add(this.store(vert, currNode), vert.computeFCost(method));
+                this.metrics.lapOpenList();
+                continue;
+            }
+
+            // Already expanded
+            if(!this.openList.contains(node)) {
+                this.metrics.countDuplicate();
+                continue;
+            }
 
-            // Add parents to list
-            MyVertex parent = currVert.getParent();
-            if(parent != null) {
-                if(AStar.debugFlag) DebugPrint.getInstance().printVertex(parent);
-                verts.add(parent);
-                currVert = parent;
-            } else break;
+            // Queued, update costs if lower through this path and update with new parent
+            if(newGCost < this.arena.getgCost(node)) {
+                this.arena.setgCost(node, newGCost);
+                this.arena.setParent(node, currNode);
+                this.arena.setBoxMove(node, vert.getBoxMove());
+                this.openList.decreaseKey(node, this.fCost(method, node));
+                this.metrics.lapOpenList();
+                this.metrics.countReopened();
+            }
         }
 
-        return verts;
+        this.metrics.updateOpenPeak(this.openList.size());
+
+        if(AStar.debugFlag && !this.openList.isEmpty()) DebugPrint.getInstance().printInt("Best cost", this.arena.getOpenCost(this.openList.peek()));
     }
 
     /**
-     * Computes the possible moves from the given vertex and for each possible move computes
-     * the f() cost and sets the parent vertex. If the possible move is already in the closed
-     * list it is ignored. If the possible move is already in the open list but not in the
-     * closed list, f() gets updated if the current g() is better through this path, also updating
-     * the parent.
+     * Copies a vertex into a new arena node.
      *
-     * @param method the method to use for calculating f()
-     * @param currVert the vertex to consider for this iteration
-     * @param useTurns whether to consider turns in the heuristic cost
-     * @param turnCost the cost of boxes changing direction
+     * @param vert the vertex with its g() and h() costs set
+     * @param parent the index of the node it was reached from, -1 for none
+     * @return the index of the new node
      */
-    private void doIterations(MyVertex.FCostMethod method, MyVertex currVert, boolean useTurns, int turnCost) {
+    private int store(MyVertex vert, int parent) {
 
-        // Update lists
-        this.closedList.add(currVert);
-        this.openList.remove(currVert);
+        int node = this.arena.add(vert.getBoxWords(), vert.getPlayerCell(), vert.getHash());
+        this.arena.setgCost(node, vert.getgCost());
+        this.arena.setHeuristicCost(node, vert.getHeuristicCost());
+        this.arena.setParent(node, parent);
+        this.arena.setBoxMove(node, vert.getBoxMove());
 
-        ArrayList<MyVertex> nextVerts = this.astar.calcPossibleMoves(currVert);
+        return node;
+    }
 
-        // For each possible move compute f() and add it to the open list
-        for(MyVertex vert : nextVerts) {
+    /**
+     * @param method the method to use for calculating f()
+     * @param node the index of the node
+     * @return the f() cost of the node
+     */
+    private int fCost(MyVertex.FCostMethod method, int node) {
 
-            // Ignore if already in closed list
-            if(this.closedList.contains(vert)) continue;
+        switch(method) {
 
-            // Compute f() if vertex is not in open list
-            if(!this.openList.contains(vert)) {
+            case G_ONLY:
+                return this.arena.getgCost(node);
 
-                if(AStar.debugFlag) DebugPrint.getInstance().printVertex(vert);
+            case H_ONLY:
+                return this.arena.getHeuristicCost(node);
 
-                // Compute h() cost if not running uniform cost search
-                if(!method.equals(MyVertex.FCostMethod.G_ONLY)) {
-                    if (useTurns) vert.computeHeuristicWithTurns(turnCost);
-                    else vert.computeHeuristic();
-                }
+            default:
+                return this.arena.getgCost(node) + this.arena.getHeuristicCost(node);
+        }
+    }
 
-                vert.setgCost(currVert.getgCost() + 1);
-                vert.computeFCost(method);
-                vert.setParent(currVert);
+    @Override
+    protected void computeHeuristic(MyVertex vert, Heuristics heuristics, MyVertex.HeuristicMethod heuristic) {
 
-                this.openList.add(vert);
+        // Through the heuristic cache when there is one
+        if(this.heuristicCache == null) super.computeHeuristic(vert, heuristics, heuristic);
+        else if(this.heuristicCache.computeHeuristic(vert, this.staticMap, heuristics, heuristic)) this.metrics.countCacheHit();
+        else this.metrics.countCacheMiss();
+    }
 
-            // If already on open list, update f() cost if lower through this path and update with new parent
-            } else {
+    /**
+     * Finds the path to the goal state by following parent indices back to the initial state.
+     *
+     * @param goalNode the index of the solution node
+     * @return the list of map states to get from the start to the finish of the Pukoban puzzle
+     */
+    private ArrayList<MyVertex> backtrack(int goalNode) {
 
-                int newFCost = currVert.getgCost() + 1 + currVert.getHeuristicCost();
-                if(newFCost < vert.getfCost()) {
-                    vert.setParent(currVert);
-                    vert.setfCost(newFCost);
-                }
-            }
+        ArrayList<MyVertex> verts = new ArrayList<MyVertex>();
+
+        for(int node = goalNode; node >= 0; node = this.arena.getParent(node)) {
+            MyVertex vert = this.arena.toVertex(node);
+            if(AStar.debugFlag) DebugPrint.getInstance().printVertex(this.staticMap, vert);
+            verts.add(vert);
         }
+        Collections.reverse(verts);
+
+        return verts;
+    }
 
-        // Sort open list
-        Collections.sort(this.openList);
-        if(AStar.debugFlag && this.openList.size() > 0) DebugPrint.getInstance().printInt("Best cost", this.openList.get(0).getfCost());
+    @Override
+    protected void finishMetrics(int solutionLength) {
+        this.metrics.setClosedSize(this.arena.size() - this.openList.size());
+        super.finishMetrics(solutionLength);
     }
 }
@@ -0,0 +1,163 @@
+package com.mygdx.astar;
+
+import java.util.ArrayList;
+import java.util.Collections;
+
+public abstract class AbstractSearchEngine implements SearchEngine {
+
+    // Expansions between progress updates seen by other threads
+    protected static final int progressInterval = 1024;
+
+    protected Solver solver;
+    protected StaticMap staticMap;
+    protected MoveGenerator moveGenerator;
+    protected SearchMetrics metrics;
+    protected boolean normalizePlayer;
+
+    // The time the current run started in nanoseconds
+    protected long startTime;
+
+    // Cancellation and progress, shared with the thread watching the search
+    protected volatile boolean cancelled = false;
+    protected volatile int progressExpanded = 0;
+    protected volatile int progressBestCost = 0;
+
+    /**
+     * Constructs the parts every search engine takes from the solver: the level, the move
+     * generator, whether only box moves are searched, and metrics for the run.
+     *
+     * @param solver the solver holding the level and its precomputed tables
+     */
+    protected AbstractSearchEngine(Solver solver) {
+        this.solver = solver;
+        this.staticMap = solver.getStaticMap();
+        this.moveGenerator = solver.getMoveGenerator();
+        this.metrics = new SearchMetrics(solver.isTimingPhases());
+        this.normalizePlayer = solver.isNormalizingPlayer();
+    }
+
+    /**
+     * Starts the clock and records the settings of the run in the metrics.
+     *
+     * @param method the method to use for calculating f()
+     * @param heuristic the heuristic to use for calculating h()
+     * @param turnCost the cost of boxes changing direction
+     */
+    protected void startRun(MyVertex.FCostMethod method, MyVertex.HeuristicMethod heuristic, int turnCost) {
+        this.startTime = System.nanoTime();
+        this.metrics.setRun(this.solver.getLevel().getName(), method, heuristic, turnCost);
+    }
+
+    /**
+     * Creates the heuristics to compute h() with, over the distance tables the solver shares
+     * between runs.
+     *
+     * @param heuristic the heuristic to use for calculating h()
+     * @param turnCost the cost of boxes changing direction
+     * @return new heuristics for the run
+     */
+    protected Heuristics createHeuristics(MyVertex.HeuristicMethod heuristic, int turnCost) {
+
+        // Turn weighted distances are only flooded when the heuristic needs them
+        GoalDistances turnDistances = heuristic == MyVertex.HeuristicMethod.TURNS ? this.solver.getTurnDistances(turnCost) : null;
+
+        return new Heuristics(this.solver.getGoalDistances(), turnDistances);
+    }
+
+    /**
+     * @return the starting state of the level, with the player moved to its region's lowest cell when only box moves are searched
+     */
+    protected MyVertex createRoot() {
+
+        MyVertex rootVertex = new MyVertex(this.staticMap, this.solver.getLevel().getBoxes(), this.solver.getLevel().getPlayer());
+        if(this.normalizePlayer) rootVertex = this.moveGenerator.normalize(rootVertex);
+
+        return rootVertex;
+    }
+
+    /**
+     * Sets the h() cost of a successor, copied from its parent when only the player moved.
+     *
+     * @param vert the successor to compute h() for
+     * @param parent the vertex it was generated from, with h() set
+     * @param heuristics the distance tables to compute h() with
+     * @param heuristic the heuristic to use for calculating h()
+     */
+    protected void computeSuccessorHeuristic(MyVertex vert, MyVertex parent, Heuristics heuristics, MyVertex.HeuristicMethod heuristic) {
+
+        // Walking keeps the parent boxes and h()
+        if(vert.getBoxWords() == parent.getBoxWords()) vert.setHeuristicCost(parent.getHeuristicCost());
+        else this.computeHeuristic(vert, heuristics, heuristic);
+    }
+
+    /**
+     * Sets the h() cost of a vertex.
+     *
+     * @param vert the vertex to compute h() for
+     * @param heuristics the distance tables to compute h() with
+     * @param heuristic the heuristic to use for calculating h()
+     */
+    protected void computeHeuristic(MyVertex vert, Heuristics heuristics, MyVertex.HeuristicMethod heuristic) {
+        vert.computeHeuristic(heuristics, heuristic);
+    }
+
+    /**
+     * Turns the path found into the solution returned by runAlgorithm.
+     *
+     * @param path the vertices from the starting state to the goal state
+     * @return the vertices from the goal state back to the starting state, with every player move in between
+     */
+    protected ArrayList<MyVertex> finishPath(ArrayList<MyVertex> path) {
+
+        // Box moves only, walk the player between them
+        if(this.normalizePlayer) return this.moveGenerator.fillInWalks(path, this.staticMap.toCell(this.solver.getLevel().getPlayer()));
+
+        Collections.reverse(path);
+        return path;
+    }
+
+    /**
+     * Fills in the metrics only known once the search ends.
+     *
+     * @param solutionLength the number of moves in the solution, -1 if none was found
+     */
+    protected void finishMetrics(int solutionLength) {
+        this.metrics.setSolutionLength(solutionLength);
+        this.metrics.setTotalTime(System.nanoTime() - this.startTime);
+    }
+
+    @Override
+    public void cancel() {
+        this.cancelled = true;
+    }
+
+    @Override
+    public boolean isCancelled() {
+        return this.cancelled;
+    }
+
+    @Override
+    public int getProgressExpanded() {
+        return this.progressExpanded;
+    }
+
+    @Override
+    public int getProgressBestCost() {
+        return this.progressBestCost;
+    }
+
+    @Override
+    public String getBestMoves() {
+        return null;
+    }
+
+    @Override
+    public float getBestBound() {
+        return Float.POSITIVE_INFINITY;
+    }
+
+    @Override
+    public SearchMetrics getMetrics() {
+        return this.metrics;
+    }
+}
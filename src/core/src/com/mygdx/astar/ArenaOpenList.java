@@ -0,0 +1,165 @@
+package com.mygdx.astar;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+public class ArenaOpenList {
+
+    private NodeStore arena;
+
+    // Buckets indexed by f(), each holding LIFO stacks of node indices indexed by h()
+    private ArrayList<ArrayList<int[]>> buckets = new ArrayList<ArrayList<int[]>>();
+    private ArrayList<int[]> stackSizes = new ArrayList<int[]>();
+    private int minFCost = 0;
+    private int size = 0;
+
+    /**
+     * Constructs an ArenaOpenList object which orders arena nodes the same way the bucketed
+     * open list orders vertices, lowest f() first and lowest h() among equal f(), last in
+     * first out among equal both. The f() a node is queued with is kept in the arena, so
+     * the stacks only hold node indices.
+     *
+     * @param arena the node store holding the queued nodes
+     */
+    public ArenaOpenList(NodeStore arena) {
+        this.arena = arena;
+    }
+
+    /**
+     * Adds a node to the open list. The node must not be queued already.
+     *
+     * @param node the index of the node
+     * @param fCost the f() cost of the node
+     */
+    public void add(int node, int fCost) {
+        this.push(node, fCost);
+        this.size++;
+    }
+
+    /**
+     * Moves a queued node to the bucket for its lowered f() cost. The entry left in the old
+     * bucket is skipped once reached since it no longer matches the node f() cost.
+     *
+     * @param node the index of the queued node
+     * @param fCost the lowered f() cost of the node
+     */
+    public void decreaseKey(int node, int fCost) {
+        if(fCost != this.arena.getOpenCost(node)) this.push(node, fCost);
+    }
+
+    /**
+     * @return the index of the next node to expand without removing it, -1 if empty
+     */
+    public int peek() {
+
+        int hCost = this.findMinStack();
+        if(hCost < 0) return -1;
+
+        return this.buckets.get(this.minFCost).get(hCost)[this.stackSizes.get(this.minFCost)[hCost] - 1];
+    }
+
+    /**
+     * Removes the next node to expand and marks it as not queued.
+     *
+     * @return the index of the next node to expand, -1 if empty
+     */
+    public int poll() {
+
+        int hCost = this.findMinStack();
+        if(hCost < 0) return -1;
+
+        int[] sizes = this.stackSizes.get(this.minFCost);
+        int node = this.buckets.get(this.minFCost).get(hCost)[--sizes[hCost]];
+        this.arena.setOpenCost(node, -1);
+        this.size--;
+
+        return node;
+    }
+
+    /**
+     * @param node the index of the node
+     * @return whether the node is queued
+     */
+    public boolean contains(int node) {
+        return this.arena.getOpenCost(node) >= 0;
+    }
+
+    /**
+     * @return the number of nodes in the open list
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * @return whether the open list is empty
+     */
+    public boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    /**
+     * Pushes a node on top of the stack for its f() and h() costs, growing the buckets if needed.
+     *
+     * @param node the index of the node
+     * @param fCost the f() cost to queue the node with
+     */
+    private void push(int node, int fCost) {
+
+        int hCost = this.arena.getHeuristicCost(node);
+
+        while(this.buckets.size() <= fCost) {
+            this.buckets.add(new ArrayList<int[]>());
+            this.stackSizes.add(new int[0]);
+        }
+
+        ArrayList<int[]> bucket = this.buckets.get(fCost);
+        int[] sizes = this.stackSizes.get(fCost);
+        if(sizes.length <= hCost) {
+            sizes = Arrays.copyOf(sizes, hCost + 1);
+            this.stackSizes.set(fCost, sizes);
+        }
+        while(bucket.size() <= hCost) bucket.add(new int[8]);
+
+        int[] stack = bucket.get(hCost);
+        if(sizes[hCost] == stack.length) {
+            stack = Arrays.copyOf(stack, stack.length * 2);
+            bucket.set(hCost, stack);
+        }
+        stack[sizes[hCost]++] = node;
+
+        this.arena.setOpenCost(node, fCost);
+        if(fCost < this.minFCost) this.minFCost = fCost;
+    }
+
+    /**
+     * Finds the non-empty stack with the lowest f() cost and, within it, the lowest h() cost.
+     * Stale entries left behind by decreaseKey and expanded nodes are dropped on the way.
+     *
+     * @return the h() cost of the stack in the lowest f() bucket holding the next node, -1 if the open list is empty
+     */
+    private int findMinStack() {
+
+        if(this.size == 0) return -1;
+
+        while(this.minFCost < this.buckets.size()) {
+
+            ArrayList<int[]> bucket = this.buckets.get(this.minFCost);
+            int[] sizes = this.stackSizes.get(this.minFCost);
+
+            for(int hCost = 0; hCost < bucket.size(); hCost++) {
+
+                // Drop entries whose node moved to a cheaper bucket or was already expanded
+                int[] stack = bucket.get(hCost);
+                while(sizes[hCost] > 0) {
+                    if(this.arena.getOpenCost(stack[sizes[hCost] - 1]) == this.minFCost) return hCost;
+                    sizes[hCost]--;
+                }
+            }
+
+            this.minFCost++;
+        }
+
+        return -1;
+    }
+}
@@ -0,0 +1,319 @@
+package com.mygdx.astar;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+
+public class BeamSearchAlgo extends AbstractSearchEngine {
+
+    // Layers searched before giving up, a small duplicate window can let the beam wander forever
+    private static final int maxDepth = 100000;
+
+    // Full layers of states the path trace can hold, the states of a beam soon share most of their ancestors
+    private static final int traceLayers = 256;
+
+    private Heuristics heuristics;
+    private int beamWidth;
+
+    // Hashes of recently generated states, each state overwrites whatever was in its slot
+    private long[] recentHashes;
+    private int recentMask;
+
+    // The path to each kept state, as the trace entry of the state it was generated from and which of
+    // its successors it was. Parents always come before their children, -1 is the starting state
+    private int[] traceParents;
+    private int[] traceSuccessors;
+    private int traceSize;
+    private int traceCapacity;
+
+    /**
+     * Constructs a BeamSearchAlgo object responsible for running a beam search on the solver
+     * level. Only the best states of each layer by h() are kept, and only a fixed window of
+     * recent states is checked for duplicates, so memory stays the same however large the level.
+     * The path to each kept state is a chain of trace entries shared with the other states
+     * descending from the same states, and is replayed at the end. Whenever the trace fills up the
+     * entries no kept state descends from anymore are dropped, and it never holds more than a few
+     * hundred layers of the beam, so it's bounded by the beam width and not by the depth. A search
+     * whose live trace outgrows that gives up like one going past the most layers.
+     *
+     * @param solver the solver holding the level and its precomputed tables
+     */
+    public BeamSearchAlgo(Solver solver) {
+
+        super(solver);
+        this.beamWidth = Math.max(1, solver.getBeamWidth());
+
+        this.recentHashes = new long[1 << solver.getBeamWindowBits()];
+        this.recentMask = this.recentHashes.length - 1;
+
+        this.traceCapacity = (int) Math.min(Integer.MAX_VALUE - 8, (long) this.beamWidth * traceLayers);
+    }
+
+    @Override
+    public ArrayList<MyVertex> runAlgorithm(MyVertex.FCostMethod method, MyVertex.HeuristicMethod heuristic, int turnCost) {
+
+        this.startRun(method, heuristic, turnCost);
+        this.heuristics = this.createHeuristics(heuristic, turnCost);
+
+        MyVertex rootVertex = this.createRoot();
+        this.isRecent(rootVertex);
+
+        // The trace starts small and grows up to its cap as the live part of it does
+        int initialTrace = Math.min(this.traceCapacity, 1024);
+        this.traceParents = new int[initialTrace];
+        this.traceSuccessors = new int[initialTrace];
+        this.traceSize = 0;
+
+        ArrayList<MyVertex> beam = new ArrayList<MyVertex>();
+        beam.add(rootVertex);
+        int[] traces = {-1};
+        int depth = 0;
+        int goalIndex = rootVertex.checkGoal(this.staticMap.getGoalBits()) ? 0 : -1;
+
+        // Keep the best successors of each layer until one of them is a goal
+        while(goalIndex < 0 && !beam.isEmpty() && depth < maxDepth && !this.cancelled) {
+
+            ArrayList<Candidate> candidates = this.expandLayer(beam, heuristic);
+            depth++;
+
+            // Lowest h() first, generation order breaks ties
+            this.metrics.startLap();
+            Collections.sort(candidates, new Comparator<Candidate>() {
+                @Override
+                public int compare(Candidate a, Candidate b) {
+                    return a.vert.getHeuristicCost() - b.vert.getHeuristicCost();
+                }
+            });
+            this.metrics.lapOpenList();
+
+            // Dropped states leave the window so they can still be reached later
+            if(candidates.size() > this.beamWidth) {
+                this.metrics.countTruncated();
+                for(int i = this.beamWidth; i < candidates.size(); i++) this.forget(candidates.get(i).vert);
+                if(AStar.debugFlag) DebugPrint.getInstance().printInt("Layer " + depth + " truncated, dropped", candidates.size() - this.beamWidth);
+            }
+
+            int kept = Math.min(candidates.size(), this.beamWidth);
+            if(!this.reserveTrace(kept, traces)) {
+                if(AStar.debugFlag) System.out.println("Beam trace full at layer " + depth + " with " + this.traceSize + " entries");
+                break;
+            }
+
+            int[] nextTraces = new int[kept];
+            beam = new ArrayList<MyVertex>(kept);
+
+            for(int i = 0; i < kept; i++) {
+                Candidate candidate = candidates.get(i);
+                this.traceParents[this.traceSize] = traces[candidate.parent];
+                this.traceSuccessors[this.traceSize] = candidate.successor;
+                nextTraces[i] = this.traceSize++;
+                beam.add(candidate.vert);
+                if(goalIndex < 0 && candidate.vert.checkGoal(this.staticMap.getGoalBits())) goalIndex = i;
+            }
+
+            traces = nextTraces;
+            this.metrics.updateOpenPeak(candidates.size());
+            this.progressBestCost = depth;
+        }
+
+        this.metrics.setClosedSize(beam.size());
+
+        if(goalIndex < 0 || this.cancelled) {
+            this.finishMetrics(-1);
+            return new ArrayList<MyVertex>();
+        }
+
+        ArrayList<MyVertex> path = this.finishPath(this.replay(rootVertex, traces[goalIndex], depth));
+        this.finishMetrics(path.size() - 1);
+
+        return path;
+    }
+
+    /**
+     * Expands every state of the beam, dropping successors seen recently and computing
+     * h() for the rest.
+     *
+     * @param beam the states kept from the last layer
+     * @param heuristic the heuristic to use for calculating h()
+     * @return the successors not seen recently
+     */
+    private ArrayList<Candidate> expandLayer(ArrayList<MyVertex> beam, MyVertex.HeuristicMethod heuristic) {
+
+        ArrayList<Candidate> candidates = new ArrayList<Candidate>();
+
+        for(int parent = 0; parent < beam.size(); parent++) {
+
+            MyVertex vert = beam.get(parent);
+
+            this.metrics.startLap();
+            this.metrics.countExpanded();
+            if(this.metrics.getExpandedCount() % progressInterval == 0) this.progressExpanded = this.metrics.getExpandedCount();
+
+            ArrayList<MyVertex> nextVerts = this.successors(vert);
+            this.metrics.lapSuccessors();
+            this.metrics.countGenerated(nextVerts.size());
+
+            for(int successor = 0; successor < nextVerts.size(); successor++) {
+
+                MyVertex nextVert = nextVerts.get(successor);
+
+                boolean recent = this.isRecent(nextVert);
+                this.metrics.lapClosedList();
+                if(recent) {
+                    this.metrics.countDuplicate();
+                    continue;
+                }
+
+                this.computeSuccessorHeuristic(nextVert, vert, this.heuristics, heuristic);
+                this.metrics.lapHeuristic();
+
+                candidates.add(new Candidate(nextVert, parent, successor));
+            }
+        }
+
+        return candidates;
+    }
+
+    /**
+     * Checks the recent window for the state and records it there.
+     *
+     * @param vert the state to check
+     * @return whether the state was in its window slot already
+     */
+    private boolean isRecent(MyVertex vert) {
+
+        long hash = vert.getHash();
+        int slot = (int) (hash ^ (hash >>> 32)) & this.recentMask;
+
+        if(this.recentHashes[slot] == hash) return true;
+
+        this.recentHashes[slot] = hash;
+        return false;
+    }
+
+    /**
+     * Takes the state out of the recent window, unless another state took its slot since.
+     *
+     * @param vert the state to take out
+     */
+    private void forget(MyVertex vert) {
+
+        long hash = vert.getHash();
+        int slot = (int) (hash ^ (hash >>> 32)) & this.recentMask;
+
+        if(this.recentHashes[slot] == hash) this.recentHashes[slot] = 0;
+    }
+
+    /**
+     * Makes room in the trace for the entries of a new layer, first by dropping the entries
+     * none of the kept states descend from, then by growing it up to its cap.
+     *
+     * @param count the number of entries to make room for
+     * @param live the trace entries of the kept states, renumbered if the trace is compacted
+     * @return whether there's room, false once even the live entries leave none
+     */
+    private boolean reserveTrace(int count, int[] live) {
+
+        if(this.traceSize + count <= this.traceParents.length) return true;
+
+        this.compactTrace(live);
+
+        // Grow when compacting left less than half free, so it doesn't run again after a few layers
+        long needed = (long) this.traceSize + count;
+        if(needed * 2 > this.traceParents.length && this.traceParents.length < this.traceCapacity) {
+            int length = (int) Math.min(this.traceCapacity, Math.max(needed * 2, this.traceParents.length * 2L));
+            this.traceParents = Arrays.copyOf(this.traceParents, length);
+            this.traceSuccessors = Arrays.copyOf(this.traceSuccessors, length);
+        }
+
+        return needed <= this.traceParents.length;
+    }
+
+    /**
+     * Drops the trace entries none of the kept states descend from, moving the others down.
+     *
+     * @param live the trace entries of the kept states, renumbered in place
+     */
+    private void compactTrace(int[] live) {
+
+        // Mark the ancestors of every kept state, stopping at the ones another state marked already
+        int[] moved = new int[this.traceSize];
+        Arrays.fill(moved, -1);
+        for(int entry : live) {
+            for(int e = entry; e >= 0 && moved[e] < 0; e = this.traceParents[e]) moved[e] = 0;
+        }
+
+        // Parents come before their children, so the parent of an entry is always moved first
+        int size = 0;
+        for(int e = 0; e < this.traceSize; e++) {
+            if(moved[e] < 0) continue;
+
+            int parent = this.traceParents[e];
+            this.traceParents[size] = parent < 0 ? -1 : moved[parent];
+            this.traceSuccessors[size] = this.traceSuccessors[e];
+            moved[e] = size++;
+        }
+        this.traceSize = size;
+
+        for(int i = 0; i < live.length; i++) {
+            if(live[i] >= 0) live[i] = moved[live[i]];
+        }
+    }
+
+    /**
+     * Rebuilds the path by walking the trace back from the goal to find which successor was
+     * taken at each layer, then generating those successors again from the start.
+     *
+     * @param rootVertex the starting state
+     * @param goalTrace the trace entry of the goal state, -1 if the starting state is the goal
+     * @param depth the layer of the goal state
+     * @return the states from the starting state to the goal state
+     */
+    private ArrayList<MyVertex> replay(MyVertex rootVertex, int goalTrace, int depth) {
+
+        int[] taken = new int[depth];
+        int layer = depth;
+
+        for(int entry = goalTrace; entry >= 0; entry = this.traceParents[entry]) taken[--layer] = this.traceSuccessors[entry];
+
+        ArrayList<MyVertex> path = new ArrayList<MyVertex>();
+        path.add(rootVertex);
+
+        MyVertex vert = rootVertex;
+        for(int successor : taken) {
+            vert = this.successors(vert).get(successor);
+            path.add(vert);
+        }
+
+        return path;
+    }
+
+    /**
+     * @param vert the state to expand
+     * @return the successors of the state, in the same order every time
+     */
+    private ArrayList<MyVertex> successors(MyVertex vert) {
+        return this.normalizePlayer ? this.moveGenerator.calcBoxMoves(vert) : this.moveGenerator.calcPossibleMoves(vert);
+    }
+
+    private static class Candidate {
+
+        private MyVertex vert;
+        private int parent;
+        private int successor;
+
+        /**
+         * Constructs a Candidate object which holds a successor competing for a place in the next layer.
+         *
+         * @param vert the successor state
+         * @param parent the beam index of the state it was generated from
+         * @param successor its index among the successors of that state
+         */
+        Candidate(MyVertex vert, int parent, int successor) {
+            this.vert = vert;
+            this.parent = parent;
+            this.successor = successor;
+        }
+    }
+}
@@ -0,0 +1,216 @@
+package com.mygdx.astar;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+
+public class BidirectionalAlgo extends AbstractSearchEngine {
+
+    // Vertices reached by each side, looked up by the other side to find where they meet
+    private HashMap<MyVertex, MyVertex> forwardSeen = new HashMap<MyVertex, MyVertex>();
+    private HashMap<MyVertex, MyVertex> backwardSeen = new HashMap<MyVertex, MyVertex>();
+
+    // Shortest meeting found so far, the same board state as reached by each side
+    private int bestCost = Integer.MAX_VALUE;
+    private MyVertex forwardMeet;
+    private MyVertex backwardMeet;
+
+    /**
+     * Constructs a BidirectionalAlgo object responsible for running a breadth-first search
+     * forward from the start of the solver level and backward from every goal placement at
+     * the same time. Pushes and pulls undo each other, so the backward search uses the same
+     * moves as the forward one.
+     *
+     * @param solver the solver holding the level and its precomputed tables
+     */
+    public BidirectionalAlgo(Solver solver) {
+        super(solver);
+    }
+
+    @Override
+    public ArrayList<MyVertex> runAlgorithm(MyVertex.FCostMethod method, MyVertex.HeuristicMethod heuristic, int turnCost) {
+
+        this.startRun(method, heuristic, turnCost);
+
+        // Goal placements are only known when every box has its own goal
+        if(this.solver.getLevel().getBoxes().size() != this.staticMap.getGoalCells().length) {
+            if(AStar.debugFlag) DebugPrint.getInstance().printInt("Boxes and goals differ, goals", this.staticMap.getGoalCells().length);
+            this.finishMetrics(-1);
+            return new ArrayList<MyVertex>();
+        }
+
+        MyVertex rootVertex = this.createRoot();
+        rootVertex.setgCost(0);
+
+        ArrayList<MyVertex> forwardFrontier = new ArrayList<MyVertex>();
+        forwardFrontier.add(rootVertex);
+        this.forwardSeen.put(rootVertex, rootVertex);
+
+        ArrayList<MyVertex> backwardFrontier = this.goalVertices();
+        for(MyVertex goalVert : backwardFrontier) {
+            this.backwardSeen.put(goalVert, goalVert);
+            this.checkMeeting(goalVert, this.forwardSeen, true);
+        }
+
+        int forwardDepth = 0;
+        int backwardDepth = 0;
+
+        // Expand whole layers, always on the side with the smaller frontier, until a layer meets the other side
+        while(this.bestCost == Integer.MAX_VALUE && !forwardFrontier.isEmpty() && !backwardFrontier.isEmpty() && !this.cancelled) {
+
+            if(forwardFrontier.size() <= backwardFrontier.size()) {
+                forwardFrontier = this.expandLayer(forwardFrontier, this.forwardSeen, this.backwardSeen, true);
+                forwardDepth++;
+            } else {
+                backwardFrontier = this.expandLayer(backwardFrontier, this.backwardSeen, this.forwardSeen, false);
+                backwardDepth++;
+            }
+
+            this.progressBestCost = forwardDepth + backwardDepth;
+            this.metrics.updateOpenPeak(forwardFrontier.size() + backwardFrontier.size());
+            if(AStar.debugFlag) DebugPrint.getInstance().printInt("Depth", forwardDepth + backwardDepth);
+        }
+
+        this.metrics.setClosedSize(this.forwardSeen.size() + this.backwardSeen.size());
+
+        if(this.bestCost == Integer.MAX_VALUE || this.cancelled) {
+            this.finishMetrics(-1);
+            return new ArrayList<MyVertex>();
+        }
+
+        ArrayList<MyVertex> solution = this.finishPath(this.joinHalves());
+        this.finishMetrics(solution.size() - 1);
+
+        return solution;
+    }
+
+    /**
+     * Builds the starting vertices of the backward search, every box on a goal with the player
+     * on each free cell, or on one cell of each player region when only expanding box moves.
+     *
+     * @return the list of goal vertices
+     */
+    private ArrayList<MyVertex> goalVertices() {
+
+        ArrayList<MyVertex> goalVerts = new ArrayList<MyVertex>();
+        HashMap<MyVertex, MyVertex> regions = new HashMap<MyVertex, MyVertex>();
+        long[] goalBits = this.staticMap.getGoalBits();
+
+        for(int cell = 0; cell < this.staticMap.getCellCount(); cell++) {
+
+            if(this.staticMap.isWall(cell) || (goalBits[cell >>> 6] & (1L << cell)) != 0) continue;
+
+            MyVertex goalVert = new MyVertex(goalBits.clone(), cell, this.staticMap.zobristHash(goalBits, cell));
+            if(this.normalizePlayer) {
+                goalVert = this.moveGenerator.normalize(goalVert);
+                if(regions.containsKey(goalVert)) continue;
+                regions.put(goalVert, goalVert);
+            }
+
+            goalVert.setgCost(0);
+            goalVerts.add(goalVert);
+        }
+
+        return goalVerts;
+    }
+
+    /**
+     * Expands every vertex of one side's frontier. Successors new to this side are checked
+     * against the vertices reached by the other side, so the whole layer is looked at before
+     * the search stops and the shortest meeting in it is kept.
+     *
+     * @param frontier the vertices reached by the last layer of this side
+     * @param seen the vertices reached by this side
+     * @param otherSeen the vertices reached by the other side
+     * @param forward whether this is the forward side
+     * @return the vertices reached by the new layer
+     */
+    private ArrayList<MyVertex> expandLayer(ArrayList<MyVertex> frontier, HashMap<MyVertex, MyVertex> seen,
+                                            HashMap<MyVertex, MyVertex> otherSeen, boolean forward) {
+
+        ArrayList<MyVertex> nextFrontier = new ArrayList<MyVertex>();
+
+        for(MyVertex vert : frontier) {
+
+            if(this.cancelled) break;
+
+            this.metrics.startLap();
+            this.metrics.countExpanded();
+            if(this.metrics.getExpandedCount() % progressInterval == 0) this.progressExpanded = this.metrics.getExpandedCount();
+
+            ArrayList<MyVertex> nextVerts = this.normalizePlayer ? this.moveGenerator.calcBoxMoves(vert) : this.moveGenerator.calcPossibleMoves(vert);
+            this.metrics.lapSuccessors();
+            this.metrics.countGenerated(nextVerts.size());
+
+            for(MyVertex nextVert : nextVerts) {
+
+                boolean known = seen.containsKey(nextVert);
+                this.metrics.lapClosedList();
+                if(known) {
+                    this.metrics.countDuplicate();
+                    continue;
+                }
+
+                nextVert.setParent(vert);
+                nextVert.setgCost(vert.getgCost() + 1);
+                seen.put(nextVert, nextVert);
+                nextFrontier.add(nextVert);
+
+                this.checkMeeting(nextVert, otherSeen, forward);
+                this.metrics.lapClosedList();
+            }
+        }
+
+        return nextFrontier;
+    }
+
+    /**
+     * Keeps the vertex as the meeting point if the other side already reached the same
+     * board state and the path through it is shorter than the best one so far.
+     *
+     * @param vert the vertex just reached
+     * @param otherSeen the vertices reached by the other side
+     * @param forward whether the vertex was reached by the forward side
+     */
+    private void checkMeeting(MyVertex vert, HashMap<MyVertex, MyVertex> otherSeen, boolean forward) {
+
+        MyVertex other = otherSeen.get(vert);
+        if(other == null || vert.getgCost() + other.getgCost() >= this.bestCost) return;
+
+        this.bestCost = vert.getgCost() + other.getgCost();
+        this.forwardMeet = forward ? vert : other;
+        this.backwardMeet = forward ? other : vert;
+    }
+
+    /**
+     * Joins the forward half of the path with the backward half played in reverse. Box moves
+     * on the backward half are stored as seen from the goal, so they are turned around: the
+     * player starts where the original move left it and moves back the other way.
+     *
+     * @return the vertices from the starting state to the goal state
+     */
+    private ArrayList<MyVertex> joinHalves() {
+
+        ArrayList<MyVertex> solution = new ArrayList<MyVertex>();
+
+        for(MyVertex vert = this.forwardMeet; vert != null; vert = vert.getParent()) solution.add(vert);
+        Collections.reverse(solution);
+
+        for(MyVertex vert = this.backwardMeet; vert.getParent() != null; vert = vert.getParent()) {
+
+            MyVertex prevVert = vert.getParent();
+            MyVertex nextVert = new MyVertex(prevVert.getBoxWords(), prevVert.getPlayerCell(), prevVert.getHash());
+
+            if(this.normalizePlayer) {
+                int move = vert.getBoxMove();
+                int fromCell = move / StaticMap.directionCount;
+                int direction = move % StaticMap.directionCount;
+                nextVert.setBoxMove(this.staticMap.getNeighbour(direction, fromCell) * StaticMap.directionCount + StaticMap.opposite(direction));
+            }
+
+            solution.add(nextVert);
+        }
+
+        return solution;
+    }
+}
@@ -0,0 +1,130 @@
+package com.mygdx.astar;
+
+import com.badlogic.gdx.math.Vector2;
+
+import java.util.ArrayList;
+
+public class Board {
+
+    private StaticMap staticMap;
+
+    // Current Pukoban state, changed in place by each move
+    private long[] boxes;
+    private int player;
+    private int moveCount = 0;
+
+    // Box coordinates for rendering, rebuilt only after a box moved
+    private ArrayList<Vector2> boxCoords;
+
+    /**
+     * Constructs a Board object which holds a single Pukoban board state and applies moves to
+     * it in place, so a solution can be replayed one move at a time without keeping every
+     * state along it.
+     *
+     * @param staticMap the static map elements of the level
+     * @param boxes the list of box coordinates at the start
+     * @param pCoords the player coordinates at the start
+     */
+    public Board(StaticMap staticMap, ArrayList<Vector2> boxes, Vector2 pCoords) {
+
+        this.staticMap = staticMap;
+        this.boxes = new long[staticMap.getWordCount()];
+
+        for(Vector2 box : boxes) {
+            int cell = staticMap.toCell(box);
+            this.boxes[cell >>> 6] |= 1L << cell;
+        }
+
+        this.player = staticMap.toCell(pCoords);
+    }
+
+    /**
+     * Applies one move, walking the player and pushing the box in front of it or pulling
+     * the box behind it when the move moves a box.
+     *
+     * @param move the move letter, as encoded by MoveString
+     * @throws IllegalArgumentException if the move isn't possible from the current state
+     */
+    public void move(char move) {
+
+        int direction = MoveString.direction(move);
+        if(direction < 0) throw new IllegalArgumentException("Unknown move '" + move + "' at " + this.moveCount);
+
+        int pCell = this.staticMap.getNeighbour(direction, this.player);
+        if(this.staticMap.isWall(pCell)) throw new IllegalArgumentException("Move " + this.moveCount + " walks into a wall");
+
+        boolean boxAhead = this.hasBox(pCell);
+        boolean movesBox = MoveString.movesBox(move);
+        if(boxAhead && !movesBox) throw new IllegalArgumentException("Move " + this.moveCount + " walks into a box");
+
+        if(movesBox) {
+
+            // Push the box in front, otherwise pull the one behind
+            int oldCell = boxAhead ? pCell : this.staticMap.getNeighbour(StaticMap.opposite(direction), this.player);
+            int newCell = boxAhead ? this.staticMap.getNeighbour(direction, pCell) : this.player;
+            if(!this.hasBox(oldCell) || this.staticMap.isWall(newCell) || this.hasBox(newCell)) {
+                throw new IllegalArgumentException("Move " + this.moveCount + " has no box it can move");
+            }
+
+            this.boxes[oldCell >>> 6] &= ~(1L << oldCell);
+            this.boxes[newCell >>> 6] |= 1L << newCell;
+            this.boxCoords = null;
+        }
+
+        this.player = pCell;
+        this.moveCount++;
+    }
+
+    /**
+     * @return whether every goal has a box on it
+     */
+    public boolean isSolved() {
+
+        long[] goalBits = this.staticMap.getGoalBits();
+        for(int i = 0; i < goalBits.length; i++) {
+            if((this.boxes[i] & goalBits[i]) != goalBits[i]) return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * @return the number of moves applied so far
+     */
+    public int getMoveCount() {
+        return this.moveCount;
+    }
+
+    /**
+     * @return the player coordinates
+     */
+    public Vector2 getPlayer() {
+        return this.staticMap.toCoords(this.player);
+    }
+
+    /**
+     * @return the list of box coordinates, the same list until a box moves
+     */
+    public ArrayList<Vector2> getBoxes() {
+
+        if(this.boxCoords == null) this.boxCoords = this.toVertex().getBoxes(this.staticMap);
+
+        return this.boxCoords;
+    }
+
+    /**
+     * @return a vertex holding a copy of the current state
+     */
+    public MyVertex toVertex() {
+        long[] boxes = this.boxes.clone();
+        return new MyVertex(boxes, this.player, this.staticMap.zobristHash(boxes, this.player));
+    }
+
+    /**
+     * @param cell the cell index to check
+     * @return whether there's a box on the cell
+     */
+    private boolean hasBox(int cell) {
+        return (this.boxes[cell >>> 6] & (1L << cell)) != 0;
+    }
+}
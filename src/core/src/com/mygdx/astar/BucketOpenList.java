@@ -0,0 +1,127 @@
+package com.mygdx.astar;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+
+public class BucketOpenList implements OpenList {
+
+    // Buckets indexed by f(), each holding LIFO stacks indexed by h()
+    private ArrayList<ArrayList<ArrayList<MyVertex>>> buckets = new ArrayList<ArrayList<ArrayList<MyVertex>>>();
+    private HashMap<MyVertex, MyVertex> index = new HashMap<MyVertex, MyVertex>();
+    private int minFCost = 0;
+    private int size = 0;
+
+    @Override
+    public void add(MyVertex vert) {
+
+        this.push(vert);
+        vert.setOpenIndex(vert.getfCost());
+        this.index.put(vert, vert);
+        this.size++;
+    }
+
+    @Override
+    public MyVertex peek() {
+
+        ArrayList<MyVertex> stack = this.findMinStack();
+        return stack != null ? stack.get(stack.size() - 1) : null;
+    }
+
+    @Override
+    public MyVertex poll() {
+
+        ArrayList<MyVertex> stack = this.findMinStack();
+        if(stack == null) return null;
+
+        MyVertex top = stack.remove(stack.size() - 1);
+        this.index.remove(top);
+        top.setOpenIndex(-1);
+        this.size--;
+
+        return top;
+    }
+
+    @Override
+    public MyVertex get(MyVertex vert) {
+        return this.index.get(vert);
+    }
+
+    @Override
+    public boolean contains(MyVertex vert) {
+        return this.index.containsKey(vert);
+    }
+
+    /**
+     * Pushes the vertex into the bucket for its new f() cost. The entry left in the old
+     * bucket is skipped once reached since it no longer matches the vertex f() cost.
+     *
+     * @param vert the queued vertex whose cost decreased
+     */
+    @Override
+    public void decreaseKey(MyVertex vert) {
+
+        if(vert.getfCost() == vert.getOpenIndex()) return;
+
+        this.push(vert);
+        vert.setOpenIndex(vert.getfCost());
+    }
+
+    @Override
+    public int size() {
+        return this.size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    /**
+     * Pushes a vertex on top of the stack for its f() and h() costs, growing the buckets if needed.
+     *
+     * @param vert the vertex to push
+     */
+    private void push(MyVertex vert) {
+
+        int fCost = vert.getfCost();
+        int hCost = vert.getHeuristicCost();
+
+        while(this.buckets.size() <= fCost) this.buckets.add(new ArrayList<ArrayList<MyVertex>>());
+        ArrayList<ArrayList<MyVertex>> bucket = this.buckets.get(fCost);
+
+        while(bucket.size() <= hCost) bucket.add(new ArrayList<MyVertex>());
+        bucket.get(hCost).add(vert);
+
+        if(fCost < this.minFCost) this.minFCost = fCost;
+    }
+
+    /**
+     * Finds the non-empty stack with the lowest f() cost and, within it, the lowest h() cost.
+     * Stale entries left behind by decreaseKey and expanded vertices are dropped on the way.
+     *
+     * @return the stack holding the next vertex to expand, null if the open list is empty
+     */
+    private ArrayList<MyVertex> findMinStack() {
+
+        if(this.size == 0) return null;
+
+        while(this.minFCost < this.buckets.size()) {
+
+            ArrayList<ArrayList<MyVertex>> bucket = this.buckets.get(this.minFCost);
+
+            for(ArrayList<MyVertex> stack : bucket) {
+
+                // Drop entries whose vertex moved to a cheaper bucket or was already expanded
+                while(!stack.isEmpty()) {
+                    MyVertex top = stack.get(stack.size() - 1);
+                    if(top.getOpenIndex() == this.minFCost) return stack;
+                    stack.remove(stack.size() - 1);
+                }
+            }
+
+            this.minFCost++;
+        }
+
+        return null;
+    }
+}
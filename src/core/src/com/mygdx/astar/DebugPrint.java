@@ -66,15 +66,18 @@ public class DebugPrint {
     /**
      * Prints vertex info by printing its box coordinates and player coordinates.
      *
+     * @param staticMap the static map elements used to unpack the vertex
      * @param vert the vertex to print
      */
-    public void printVertex(MyVertex vert) {
+    public void printVertex(StaticMap staticMap, MyVertex vert) {
+
+        Vector2 player = vert.getPlayer(staticMap);
 
         System.out.println("Vertex");
-        System.out.println("\tplayer: " + "(" + vert.getPlayer().x + "," + vert.getPlayer().y + ")");
+        System.out.println("\tplayer: " + "(" + player.x + "," + player.y + ")");
 
         String print = "";
-        for(Vector2 box : vert.getBoxes()) {
+        for(Vector2 box : vert.getBoxes(staticMap)) {
             print += "(" + box.x + "," + box.y + ")";
         }
 
@@ -90,4 +93,15 @@ public class DebugPrint {
     public void printInt(String title, int value) {
         System.out.println(title + ": " + value);
     }
+
+    /**
+     * Prints the fill and probe length statistics of a state table.
+     *
+     * @param title the title of this print
+     * @param table the state table to measure
+     */
+    public void printTableStats(String title, StateTable table) {
+        System.out.println(title + ": " + table.size() + " of " + table.getCapacity() + " slots, load factor " + table.getLoadFactor()
+                + ", avg probe " + table.getAverageProbeLength() + ", max probe " + table.getMaxProbeLength());
+    }
 }
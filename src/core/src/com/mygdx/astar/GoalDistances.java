@@ -0,0 +1,167 @@
+package com.mygdx.astar;
+
+import java.util.Arrays;
+
+public class GoalDistances {
+
+    // Distance for cells no goal can reach
+    public static final int unreachable = Short.MAX_VALUE;
+
+    // Distance from each goal to each cell, walls considered and boxes ignored
+    private int[][] distances;
+
+    /**
+     * Constructs a GoalDistances object which floods the map once from every goal
+     * to know the distance from each goal to each cell. Walls never change
+     * during a search so the table holds for the whole map.
+     *
+     * @param staticMap the static map elements of the current map
+     */
+    public GoalDistances(StaticMap staticMap) {
+        this(staticMap, 0);
+    }
+
+    /**
+     * Constructs a GoalDistances object which floods the map once from every goal
+     * to know the turn weighted distance from each goal to each cell. Each step costs 1
+     * and each change of direction along the way costs the given turn cost on top.
+     *
+     * @param staticMap the static map elements of the current map
+     * @param turnCost how much each change of direction weighs in the distance
+     */
+    public GoalDistances(StaticMap staticMap, int turnCost) {
+
+        int[] goalCells = staticMap.getGoalCells();
+        this.distances = new int[goalCells.length][];
+
+        for(int goal = 0; goal < goalCells.length; goal++) {
+            this.distances[goal] = turnCost > 0 ? this.floodWithTurns(staticMap, goalCells[goal], turnCost) : this.flood(staticMap, goalCells[goal]);
+        }
+    }
+
+    /**
+     * Breadth-first flood from a goal cell.
+     *
+     * @param staticMap the static map elements of the current map
+     * @param goalCell the cell to flood from
+     * @return the distance from the goal to every cell
+     */
+    private int[] flood(StaticMap staticMap, int goalCell) {
+
+        int[] dist = new int[staticMap.getCellCount()];
+        int[] queue = new int[staticMap.getCellCount()];
+        Arrays.fill(dist, unreachable);
+
+        int head = 0;
+        int tail = 0;
+        dist[goalCell] = 0;
+        queue[tail++] = goalCell;
+
+        while(head < tail) {
+
+            int cell = queue[head++];
+
+            for(int dir = 0; dir < StaticMap.directionCount; dir++) {
+
+                int adjCell = staticMap.getNeighbour(dir, cell);
+                if(staticMap.isWall(adjCell) || dist[adjCell] != unreachable) continue;
+
+                dist[adjCell] = dist[cell] + 1;
+                queue[tail++] = adjCell;
+            }
+        }
+
+        return dist;
+    }
+
+    /**
+     * Flood from a goal cell over (cell, incoming direction) states, visiting states in order of
+     * turn weighted distance with one bucket per pending distance. Steps cost at most 1 plus the
+     * turn cost, so that many buckets are enough when reused in a circle.
+     *
+     * @param staticMap the static map elements of the current map
+     * @param goalCell the cell to flood from
+     * @param turnCost how much each change of direction weighs in the distance
+     * @return the turn weighted distance from the goal to every cell
+     */
+    private int[] floodWithTurns(StaticMap staticMap, int goalCell, int turnCost) {
+
+        int cellCount = staticMap.getCellCount();
+        int stateCount = cellCount * StaticMap.directionCount;
+        int span = turnCost + 2;
+
+        int[] stateDist = new int[stateCount];
+        int[][] buckets = new int[span][stateCount * StaticMap.directionCount];
+        int[] bucketSizes = new int[span];
+        Arrays.fill(stateDist, unreachable);
+
+        // Leaving the goal in any direction doesn't count as a turn
+        for(int dir = 0; dir < StaticMap.directionCount; dir++) {
+            int state = goalCell * StaticMap.directionCount + dir;
+            stateDist[state] = 0;
+            buckets[0][bucketSizes[0]++] = state;
+        }
+
+        int pending = StaticMap.directionCount;
+        for(int cost = 0; pending > 0; cost++) {
+
+            int bucket = cost % span;
+
+            for(int i = 0; i < bucketSizes[bucket]; i++) {
+
+                int state = buckets[bucket][i];
+                pending--;
+
+                // Skip states already reached for less
+                if(stateDist[state] != cost) continue;
+
+                int cell = state / StaticMap.directionCount;
+                int lastDir = state % StaticMap.directionCount;
+
+                for(int dir = 0; dir < StaticMap.directionCount; dir++) {
+
+                    int adjCell = staticMap.getNeighbour(dir, cell);
+                    if(staticMap.isWall(adjCell)) continue;
+
+                    int adjState = adjCell * StaticMap.directionCount + dir;
+                    int adjCost = cost + 1 + (dir != lastDir ? turnCost : 0);
+                    if(adjCost >= stateDist[adjState]) continue;
+
+                    stateDist[adjState] = adjCost;
+                    int adjBucket = adjCost % span;
+                    buckets[adjBucket][bucketSizes[adjBucket]++] = adjState;
+                    pending++;
+                }
+            }
+
+            bucketSizes[bucket] = 0;
+        }
+
+        // Cell distance is the cheapest way to arrive from any direction
+        int[] dist = new int[cellCount];
+        for(int cell = 0; cell < cellCount; cell++) {
+            int best = unreachable;
+            for(int dir = 0; dir < StaticMap.directionCount; dir++) {
+                best = Math.min(best, stateDist[cell * StaticMap.directionCount + dir]);
+            }
+            dist[cell] = best;
+        }
+
+        return dist;
+    }
+
+    /**
+     * @return the number of goals in the table
+     */
+    public int getGoalCount() {
+        return this.distances.length;
+    }
+
+    /**
+     * @param goal the goal index, in the order of the static map goal cells
+     * @return the distance from the goal to every cell
+     */
+    public int[] getDistances(int goal) {
+        return this.distances[goal];
+    }
+}
@@ -0,0 +1,372 @@
+package com.mygdx.astar;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+public class HDAStarAlgo extends AbstractSearchEngine {
+
+    // Successors buffered for another worker before they are sent as one batch
+    private static final int batchSize = 64;
+
+    // Longest an idle worker sleeps before checking again whether the search is over, 1 ms
+    private static final long idleParkNanos = 1000000;
+
+    private int threadCount;
+
+    // Search settings for the current run
+    private MyVertex.FCostMethod method;
+    private MyVertex.HeuristicMethod heuristic;
+
+    private Worker[] workers;
+
+    // Active workers plus vertices sent but not yet received, the search is over once it drops to 0
+    private AtomicLong work = new AtomicLong();
+
+    // Cheapest goal found so far, vertices that can't beat it are not expanded
+    private volatile int incumbentCost = Integer.MAX_VALUE;
+    private MyVertex incumbent;
+
+    // Set when every worker should stop, after cancelling, a greedy goal or a worker failing
+    private volatile boolean stopped = false;
+    private volatile Throwable failure;
+
+    // Expansions of every worker added up as they go, the progress seen by other threads
+    private AtomicInteger sharedExpanded = new AtomicInteger();
+
+    /**
+     * Constructs an HDAStarAlgo object responsible for running hash distributed A* on the
+     * solver level. Each worker thread owns the vertices whose hash maps to it, with its own
+     * open and closed lists, and sends the successors it generates to their owners in batches.
+     *
+     * @param solver the solver holding the level and its precomputed tables
+     */
+    public HDAStarAlgo(Solver solver) {
+        super(solver);
+        this.threadCount = Math.max(1, solver.getThreadCount());
+    }
+
+    @Override
+    public ArrayList<MyVertex> runAlgorithm(MyVertex.FCostMethod method, MyVertex.HeuristicMethod heuristic, int turnCost) {
+
+        this.startRun(method, heuristic, turnCost);
+        this.method = method;
+        this.heuristic = heuristic;
+
+        // The distance tables are shared read only between the workers
+        this.workers = new Worker[this.threadCount];
+        for(int i = 0; i < this.threadCount; i++) this.workers[i] = new Worker(this.createHeuristics(heuristic, turnCost));
+
+        MyVertex rootVertex = this.createRoot();
+
+        // Compute h() cost if not running uniform cost search
+        if(!method.equals(MyVertex.FCostMethod.G_ONLY)) rootVertex.computeHeuristic(this.workers[0].heuristics, heuristic);
+
+        rootVertex.setgCost(0);
+        rootVertex.computeFCost(method);
+
+        // Every worker starts active, plus the root vertex on its way to its owner
+        ArrayList<MyVertex> rootBatch = new ArrayList<MyVertex>();
+        rootBatch.add(rootVertex);
+        this.work.set(this.threadCount + 1);
+        this.workers[this.owner(rootVertex)].inbox.add(rootBatch);
+
+        Thread[] threads = new Thread[this.threadCount];
+        for(int i = 0; i < this.threadCount; i++) {
+            threads[i] = new Thread(this.workers[i], "Solver-" + i);
+            threads[i].setDaemon(true);
+            threads[i].start();
+        }
+
+        // Keep waiting if interrupted, workers still hold references to the shared state
+        for(Thread thread : threads) {
+            while(thread.isAlive()) {
+                try {
+                    thread.join();
+                } catch(InterruptedException e) {
+                    this.cancel();
+                }
+            }
+        }
+
+        for(Worker worker : this.workers) this.metrics.merge(worker.metrics);
+
+        // Rethrow what stopped a worker, running out of memory is handled by whoever runs the search
+        if(this.failure instanceof Error) throw (Error) this.failure;
+        if(this.failure != null) throw new RuntimeException(this.failure);
+
+        if(this.incumbent == null || this.cancelled) {
+            this.finishMetrics(-1);
+            return new ArrayList<MyVertex>();
+        }
+
+        ArrayList<MyVertex> path = new ArrayList<MyVertex>();
+        for(MyVertex vert = this.incumbent; vert != null; vert = vert.getParent()) path.add(vert);
+        Collections.reverse(path);
+
+        path = this.finishPath(path);
+        this.finishMetrics(path.size() - 1);
+
+        return path;
+    }
+
+    /**
+     * Maps a vertex to the worker owning it, from the high hash bits so the owner
+     * doesn't correlate with the hash table buckets picked from the low ones.
+     *
+     * @param vert the vertex to map
+     * @return the index of the owning worker
+     */
+    private int owner(MyVertex vert) {
+        return (int) ((vert.getHash() >>> 40) % this.threadCount);
+    }
+
+    /**
+     * Records a goal vertex if it's cheaper than the best one so far. Greedy search
+     * stops at the first goal since its order says nothing about the solution cost.
+     *
+     * @param goal the goal vertex taken off an open list
+     */
+    private synchronized void offerGoal(MyVertex goal) {
+
+        if(goal.getgCost() < this.incumbentCost) {
+            this.incumbent = goal;
+            this.incumbentCost = goal.getgCost();
+            this.progressBestCost = goal.getgCost();
+        }
+
+        if(this.method.equals(MyVertex.FCostMethod.H_ONLY)) {
+            this.stopped = true;
+            this.wakeAll();
+        }
+    }
+
+    /**
+     * Wakes every idle worker so it notices the search is over without waiting out its sleep.
+     */
+    private void wakeAll() {
+        for(Worker worker : this.workers) LockSupport.unpark(worker.thread);
+    }
+
+    @Override
+    public void cancel() {
+        super.cancel();
+        this.stopped = true;
+        if(this.workers != null) this.wakeAll();
+    }
+
+    @Override
+    public int getProgressExpanded() {
+        return this.sharedExpanded.get();
+    }
+
+    private class Worker implements Runnable {
+
+        // Batches of vertices sent by the other workers and the thread to wake when one arrives, the only state touched by other threads
+        private ConcurrentLinkedQueue<ArrayList<MyVertex>> inbox = new ConcurrentLinkedQueue<ArrayList<MyVertex>>();
+        private volatile Thread thread;
+
+        // Move generation keeps scratch arrays, so each worker has its own
+        private MoveGenerator moveGenerator = new MoveGenerator(staticMap);
+        private Heuristics heuristics;
+        private SearchMetrics metrics = new SearchMetrics(solver.isTimingPhases());
+
+        // Open list and every vertex this worker owns with the lowest g() it was reached with
+        private OpenList openList = new BucketOpenList();
+        private HashMap<MyVertex, MyVertex> seen = new HashMap<MyVertex, MyVertex>();
+
+        // Successors waiting to be sent, one buffer per worker
+        private ArrayList<ArrayList<MyVertex>> outboxes = new ArrayList<ArrayList<MyVertex>>();
+        private int sinceFlush = 0;
+
+        /**
+         * Constructs a Worker object with an empty outbox for each worker.
+         *
+         * @param heuristics the distance tables this worker computes h() with
+         */
+        Worker(Heuristics heuristics) {
+            this.heuristics = heuristics;
+            for(int i = 0; i < threadCount; i++) this.outboxes.add(new ArrayList<MyVertex>());
+        }
+
+        @Override
+        public void run() {
+
+            this.thread = Thread.currentThread();
+
+            try {
+                this.search();
+            } catch(Throwable e) {
+                failure = e;
+                stopped = true;
+                wakeAll();
+            }
+
+            this.metrics.setClosedSize(this.seen.size());
+        }
+
+        /**
+         * Alternates between receiving batches and expanding the best owned vertex. Once there's
+         * nothing left worth expanding the worker flushes its outboxes, goes idle and sleeps until
+         * a batch wakes it, or until the shared work count shows that every worker is idle with
+         * nothing left in flight.
+         */
+        private void search() {
+
+            boolean idle = false;
+
+            while(!stopped) {
+
+                ArrayList<MyVertex> batch = this.inbox.poll();
+                if(batch != null) {
+
+                    // Becoming active and taking the batch off the count happen at once, so the count never hits 0 early
+                    work.addAndGet((idle ? 1 : 0) - batch.size());
+                    idle = false;
+
+                    for(MyVertex vert : batch) this.receive(vert);
+                    continue;
+                }
+
+                MyVertex vert = this.openList.peek();
+                if(vert != null && vert.getfCost() < incumbentCost) {
+                    this.expand(vert);
+                    continue;
+                }
+
+                if(!idle) {
+                    this.flushAll();
+                    idle = true;
+                    if(work.decrementAndGet() == 0) {
+                        wakeAll();
+                        return;
+                    }
+                } else {
+                    if(work.get() == 0) return;
+
+                    // Sleep instead of spinning, a bounded sleep also notices the search stopping
+                    if(this.inbox.isEmpty()) LockSupport.parkNanos(this, idleParkNanos);
+                }
+            }
+        }
+
+        /**
+         * Takes an owned vertex in, queueing it if it's new or reached through a cheaper path
+         * than before. Vertices already reached are updated in place, even once expanded, since
+         * workers run ahead of each other and a cheaper path can show up late.
+         *
+         * @param vert the vertex to take in
+         */
+        private void receive(MyVertex vert) {
+
+            this.metrics.startLap();
+            MyVertex known = this.seen.get(vert);
+            this.metrics.lapClosedList();
+
+            if(known == null) {
+                this.seen.put(vert, vert);
+                this.metrics.lapClosedList();
+                this.openList.add(vert);
+                this.metrics.lapOpenList();
+                this.metrics.updateOpenPeak(this.openList.size());
+                return;
+            }
+
+            if(known.getgCost() <= vert.getgCost()) {
+                this.metrics.countDuplicate();
+                return;
+            }
+
+            known.setgCost(vert.getgCost());
+            known.computeFCost(method);
+            known.setParent(vert.getParent());
+            known.setBoxMove(vert.getBoxMove());
+            this.metrics.countReopened();
+
+            if(this.openList.get(known) != null) this.openList.decreaseKey(known);
+            else this.openList.add(known);
+            this.metrics.lapOpenList();
+        }
+
+        /**
+         * Expands the best owned vertex, offering it as a solution if it's a goal, and sends
+         * each successor to its owner.
+         *
+         * @param currVert the vertex to expand
+         */
+        private void expand(MyVertex currVert) {
+
+            this.metrics.startLap();
+            this.openList.poll();
+            this.metrics.lapOpenList();
+
+            if(currVert.checkGoal(staticMap.getGoalBits())) {
+                offerGoal(currVert);
+                return;
+            }
+
+            this.metrics.countExpanded();
+            if(this.metrics.getExpandedCount() % progressInterval == 0) {
+                sharedExpanded.addAndGet(progressInterval);
+                if(incumbentCost == Integer.MAX_VALUE) progressBestCost = currVert.getfCost();
+            }
+
+            ArrayList<MyVertex> nextVerts = normalizePlayer ? this.moveGenerator.calcBoxMoves(currVert) : this.moveGenerator.calcPossibleMoves(currVert);
+            this.metrics.lapSuccessors();
+            this.metrics.countGenerated(nextVerts.size());
+
+            for(MyVertex vert : nextVerts) {
+
+                // Compute h() cost if not running uniform cost search
+                if(!method.equals(MyVertex.FCostMethod.G_ONLY)) computeSuccessorHeuristic(vert, currVert, this.heuristics, heuristic);
+
+                vert.setgCost(currVert.getgCost() + 1);
+                vert.computeFCost(method);
+                vert.setParent(currVert);
+                this.metrics.lapHeuristic();
+
+                int target = owner(vert);
+                if(workers[target] == this) {
+                    this.receive(vert);
+                    continue;
+                }
+
+                ArrayList<MyVertex> outbox = this.outboxes.get(target);
+                outbox.add(vert);
+                if(outbox.size() >= batchSize) this.flush(target);
+            }
+
+            // Don't sit on small batches for long, the owners may be waiting for them
+            if(++this.sinceFlush >= batchSize) this.flushAll();
+        }
+
+        /**
+         * Sends the buffered successors of one worker as a single batch.
+         *
+         * @param target the index of the worker to send to
+         */
+        private void flush(int target) {
+
+            ArrayList<MyVertex> outbox = this.outboxes.get(target);
+            if(outbox.isEmpty()) return;
+
+            // Count the vertices before they can be received
+            work.addAndGet(outbox.size());
+            workers[target].inbox.add(outbox);
+            LockSupport.unpark(workers[target].thread);
+            this.outboxes.set(target, new ArrayList<MyVertex>());
+        }
+
+        /**
+         * Sends the buffered successors of every worker.
+         */
+        private void flushAll() {
+            for(int i = 0; i < threadCount; i++) this.flush(i);
+            this.sinceFlush = 0;
+        }
+    }
+}
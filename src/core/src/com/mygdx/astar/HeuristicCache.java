@@ -0,0 +1,182 @@
+package com.mygdx.astar;
+
+import java.util.Arrays;
+
+public class HeuristicCache {
+
+    // Entries per set, a key can only be cached in the ways of the set its hash maps to
+    private static final int ways = 4;
+
+    // Value of a way holding nothing, heuristic costs are never negative
+    private static final int empty = -1;
+
+    private int setMask;
+    private long[] keys;
+    private int[] values;
+
+    // CLOCK eviction, a way is only evicted after the hand passed it once without it being used
+    private boolean[] referenced;
+    private int[] hands;
+
+    private long hitCount = 0;
+    private long missCount = 0;
+    private long evictionCount = 0;
+
+    /**
+     * Constructs a HeuristicCache object which remembers heuristic costs by box configuration,
+     * since they don't depend on where the player stands. It's set associative with a fixed
+     * number of entries, evicting with the CLOCK approximation of least recently used.
+     *
+     * @param capacityBits the log2 of the number of entries, at least 2
+     */
+    public HeuristicCache(int capacityBits) {
+
+        int sets = Math.max(1, (1 << capacityBits) / ways);
+
+        this.setMask = sets - 1;
+        this.keys = new long[sets * ways];
+        this.values = new int[sets * ways];
+        this.referenced = new boolean[sets * ways];
+        this.hands = new int[sets];
+
+        Arrays.fill(this.values, empty);
+    }
+
+    /**
+     * Sets the h() cost of the vertex, taking it from the cache when the same boxes were seen
+     * before with the player anywhere else, and computing and caching it otherwise.
+     *
+     * @param vert the vertex to compute h() for
+     * @param staticMap the static map elements of the level, holding the Zobrist keys
+     * @param heuristics the distance tables to compute h() with
+     * @param heuristic the heuristic to use for calculating h()
+     * @return whether h() came from the cache
+     */
+    public boolean computeHeuristic(MyVertex vert, StaticMap staticMap, Heuristics heuristics, MyVertex.HeuristicMethod heuristic) {
+
+        // The player key is the only part of the state hash not from the boxes
+        long boxHash = vert.getHash() ^ staticMap.getPlayerKey(vert.getPlayerCell());
+
+        int cost = this.get(boxHash);
+        if(cost != empty) {
+            vert.setHeuristicCost(cost);
+            return true;
+        }
+
+        vert.computeHeuristic(heuristics, heuristic);
+        this.put(boxHash, vert.getHeuristicCost());
+        return false;
+    }
+
+    /**
+     * Looks up the heuristic cost of a box configuration.
+     *
+     * @param boxHash the Zobrist hash of the boxes alone
+     * @return the cached heuristic cost, -1 if it's not cached
+     */
+    public int get(long boxHash) {
+
+        int base = this.setOf(boxHash) * ways;
+
+        for(int way = base; way < base + ways; way++) {
+            if(this.values[way] != empty && this.keys[way] == boxHash) {
+                this.referenced[way] = true;
+                this.hitCount++;
+                return this.values[way];
+            }
+        }
+
+        this.missCount++;
+        return empty;
+    }
+
+    /**
+     * Caches the heuristic cost of a box configuration, evicting the first way of its set
+     * the clock hand finds unused since it last went by if the set is full.
+     *
+     * @param boxHash the Zobrist hash of the boxes alone
+     * @param cost the heuristic cost
+     */
+    public void put(long boxHash, int cost) {
+
+        int set = this.setOf(boxHash);
+        int base = set * ways;
+
+        for(int way = base; way < base + ways; way++) {
+            if(this.values[way] == empty) {
+                this.store(way, boxHash, cost);
+                return;
+            }
+        }
+
+        // Clear reference bits until an unreferenced way comes up
+        while(this.referenced[base + this.hands[set]]) {
+            this.referenced[base + this.hands[set]] = false;
+            this.hands[set] = (this.hands[set] + 1) % ways;
+        }
+
+        this.store(base + this.hands[set], boxHash, cost);
+        this.hands[set] = (this.hands[set] + 1) % ways;
+        this.evictionCount++;
+    }
+
+    /**
+     * Empties the cache and resets its counters.
+     */
+    public void clear() {
+        Arrays.fill(this.values, empty);
+        Arrays.fill(this.referenced, false);
+        Arrays.fill(this.hands, 0);
+        this.hitCount = 0;
+        this.missCount = 0;
+        this.evictionCount = 0;
+    }
+
+    /**
+     * @return the number of lookups that found the box configuration
+     */
+    public long getHitCount() {
+        return this.hitCount;
+    }
+
+    /**
+     * @return the number of lookups that didn't find the box configuration
+     */
+    public long getMissCount() {
+        return this.missCount;
+    }
+
+    /**
+     * @return the number of entries evicted to make room
+     */
+    public long getEvictionCount() {
+        return this.evictionCount;
+    }
+
+    /**
+     * @return the share of lookups that found the box configuration
+     */
+    public float getHitRate() {
+        long lookups = this.hitCount + this.missCount;
+        return lookups == 0 ? 0 : (float) this.hitCount / lookups;
+    }
+
+    /**
+     * @param way the way to fill
+     * @param boxHash the Zobrist hash of the boxes alone
+     * @param cost the heuristic cost
+     */
+    private void store(int way, long boxHash, int cost) {
+        this.keys[way] = boxHash;
+        this.values[way] = cost;
+        this.referenced[way] = false;
+    }
+
+    /**
+     * @param boxHash the Zobrist hash of the boxes alone
+     * @return the set the box configuration is cached in
+     */
+    private int setOf(long boxHash) {
+        return (int) (boxHash ^ (boxHash >>> 32)) & this.setMask;
+    }
+}
@@ -0,0 +1,78 @@
+package com.mygdx.astar;
+
+public class Heuristics {
+
+    private GoalDistances goalDistances;
+    private GoalDistances turnDistances;
+
+    /**
+     * Constructs a Heuristics object which holds the distance tables needed to compute
+     * the heuristic cost of the vertices of a search.
+     *
+     * @param goalDistances the goal to cell distances of the current map
+     * @param turnDistances the turn weighted goal to cell distances of the current map
+     */
+    public Heuristics(GoalDistances goalDistances, GoalDistances turnDistances) {
+        this.goalDistances = goalDistances;
+        this.turnDistances = turnDistances;
+    }
+
+    /**
+     * Computes the heuristic cost for a vertex.
+     * The heuristic is the sum of the shortest distance to a box for each goal,
+     * looked up in the goal distance table of the map.
+     *
+     * @param vert the vertex to use
+     * @return the heuristic cost
+     */
+    public int closestBoxSum(MyVertex vert) {
+        return this.closestBoxSum(vert, this.goalDistances);
+    }
+
+    /**
+     * Computes the heuristic cost for a vertex.
+     * The heuristic is the sum of the shortest distance to a box for each goal considering
+     * the number of turns the box has to make to reach the goal, looked up in the turn
+     * weighted goal distance table of the map.
+     *
+     * @param vert the vertex to use
+     * @return the heuristic cost
+     */
+    public int closestBoxSumWithTurns(MyVertex vert) {
+        return this.closestBoxSum(vert, this.turnDistances);
+    }
+
+    /**
+     * Sums the distance to the closest box for each goal using the given distance table.
+     *
+     * @param vert the vertex to use
+     * @param table the goal to cell distances to use
+     * @return the heuristic cost
+     */
+    private int closestBoxSum(MyVertex vert, GoalDistances table) {
+
+        int result = 0;
+        long[] boxes = vert.getBoxWords();
+
+        // For each goal find the closest box
+        for(int goal = 0; goal < table.getGoalCount(); goal++) {
+
+            int[] dist = table.getDistances(goal);
+            int best = GoalDistances.unreachable;
+
+            for(int i = 0; i < boxes.length; i++) {
+                long word = boxes[i];
+                while(word != 0) {
+                    int boxDist = dist[(i << 6) + Long.numberOfTrailingZeros(word)];
+                    if(boxDist < best) best = boxDist;
+                    word &= word - 1;
+                }
+            }
+
+            result += best;
+        }
+
+        if(AStar.debugFlag) DebugPrint.getInstance().printInt("h()", result);
+        return result;
+    }
+}
@@ -0,0 +1,176 @@
+package com.mygdx.astar;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+
+public class IDAStarAlgo extends AbstractSearchEngine {
+
+    // Search result when the goal was reached
+    private static final int found = -1;
+
+    private Heuristics heuristics;
+
+    // Search settings for the current run
+    private MyVertex.FCostMethod method;
+    private MyVertex.HeuristicMethod heuristic;
+
+    // Current path from the starting vertex, the only vertices kept alive
+    private ArrayList<MyVertex> path = new ArrayList<MyVertex>();
+    private HashSet<MyVertex> onPath = new HashSet<MyVertex>();
+
+    // Transposition table, lowest g() each state was expanded with in the current iteration
+    private int transpositionMask;
+    private long[] transpositionHashes;
+    private int[] transpositionCosts;
+    private int[] transpositionIterations;
+    private int iteration = 0;
+
+    /**
+     * Constructs an IDAStarAlgo object responsible for running the iterative deepening A*
+     * algorithm on the solver level. Memory grows with the solution depth instead of with
+     * the number of vertices seen, plus the fixed size transposition table if enabled.
+     *
+     * @param solver the solver holding the level and its precomputed tables
+     */
+    public IDAStarAlgo(Solver solver) {
+
+        super(solver);
+
+        int bits = solver.getTranspositionBits();
+        if(bits > 0) {
+            this.transpositionMask = (1 << bits) - 1;
+            this.transpositionHashes = new long[1 << bits];
+            this.transpositionCosts = new int[1 << bits];
+            this.transpositionIterations = new int[1 << bits];
+        }
+    }
+
+    @Override
+    public ArrayList<MyVertex> runAlgorithm(MyVertex.FCostMethod method, MyVertex.HeuristicMethod heuristic, int turnCost) {
+
+        this.startRun(method, heuristic, turnCost);
+        this.heuristics = this.createHeuristics(heuristic, turnCost);
+        this.method = method;
+        this.heuristic = heuristic;
+
+        MyVertex rootVertex = this.createRoot();
+
+        // Compute h() cost if not running uniform cost search
+        if(!method.equals(MyVertex.FCostMethod.G_ONLY)) rootVertex.computeHeuristic(this.heuristics, heuristic);
+
+        rootVertex.setgCost(0);
+        int threshold = rootVertex.computeFCost(method);
+
+        this.path.add(rootVertex);
+        this.onPath.add(rootVertex);
+
+        // Deepen the f() threshold to the lowest f() that went over it until the goal is reached
+        while(true) {
+
+            this.iteration++;
+            this.progressBestCost = threshold;
+            if(AStar.debugFlag) DebugPrint.getInstance().printInt("Threshold", threshold);
+
+            int next = this.search(rootVertex, threshold);
+            if(next == found) break;
+
+            // No solution once nothing went over the threshold or the search is cancelled
+            if(next == Integer.MAX_VALUE || this.cancelled) {
+                this.finishMetrics(-1);
+                return new ArrayList<MyVertex>();
+            }
+
+            threshold = next;
+        }
+
+        ArrayList<MyVertex> solution = this.finishPath(new ArrayList<MyVertex>(this.path));
+        this.finishMetrics(solution.size() - 1);
+
+        return solution;
+    }
+
+    /**
+     * Depth-first search below the given vertex, the last vertex of the current path, cutting
+     * off every vertex whose f() goes over the threshold. Vertices already on the path are
+     * skipped, and so are vertices already expanded in this iteration for the same or lower g().
+     *
+     * @param vert the vertex to search from
+     * @param threshold the highest f() cost allowed in this iteration
+     * @return found if the goal was reached, otherwise the lowest f() cost over the threshold
+     */
+    private int search(MyVertex vert, int threshold) {
+
+        if(vert.getfCost() > threshold) return vert.getfCost();
+        if(vert.checkGoal(this.staticMap.getGoalBits())) return found;
+        if(this.cancelled || this.isTransposition(vert)) return Integer.MAX_VALUE;
+
+        this.metrics.startLap();
+        this.metrics.countExpanded();
+        this.metrics.updateOpenPeak(this.path.size());
+        if(this.metrics.getExpandedCount() % progressInterval == 0) this.progressExpanded = this.metrics.getExpandedCount();
+
+        ArrayList<MyVertex> nextVerts = this.normalizePlayer ? this.moveGenerator.calcBoxMoves(vert) : this.moveGenerator.calcPossibleMoves(vert);
+        this.metrics.lapSuccessors();
+        this.metrics.countGenerated(nextVerts.size());
+
+        int lowest = Integer.MAX_VALUE;
+
+        for(MyVertex nextVert : nextVerts) {
+
+            // Ignore vertices that would close a cycle
+            boolean cycle = this.onPath.contains(nextVert);
+            this.metrics.lapClosedList();
+            if(cycle) {
+                this.metrics.countDuplicate();
+                continue;
+            }
+
+            // Compute h() cost if not running uniform cost search
+            if(!this.method.equals(MyVertex.FCostMethod.G_ONLY)) this.computeSuccessorHeuristic(nextVert, vert, this.heuristics, this.heuristic);
+
+            nextVert.setgCost(vert.getgCost() + 1);
+            nextVert.computeFCost(this.method);
+            this.metrics.lapHeuristic();
+
+            this.path.add(nextVert);
+            this.onPath.add(nextVert);
+
+            int result = this.search(nextVert, threshold);
+            if(result == found) return found;
+
+            this.onPath.remove(nextVert);
+            this.path.remove(this.path.size() - 1);
+            this.metrics.startLap();
+
+            if(result < lowest) lowest = result;
+        }
+
+        return lowest;
+    }
+
+    /**
+     * Checks the transposition table for the vertex and records it when it's the first time
+     * in this iteration or it's reached with a lower g() than before. States are told apart
+     * by their 64 bit Zobrist hash alone.
+     *
+     * @param vert the vertex about to be expanded
+     * @return whether the vertex was already expanded in this iteration with the same or lower g()
+     */
+    private boolean isTransposition(MyVertex vert) {
+
+        if(this.transpositionHashes == null) return false;
+
+        long hash = vert.getHash();
+        int slot = (int) (hash ^ (hash >>> 32)) & this.transpositionMask;
+
+        if(this.transpositionIterations[slot] == this.iteration && this.transpositionHashes[slot] == hash
+                && this.transpositionCosts[slot] <= vert.getgCost()) return true;
+
+        // Always replace, recent vertices are the most likely to be reached again
+        this.transpositionIterations[slot] = this.iteration;
+        this.transpositionHashes[slot] = hash;
+        this.transpositionCosts[slot] = vert.getgCost();
+
+        return false;
+    }
+}
@@ -0,0 +1,89 @@
+package com.mygdx.astar;
+
+import com.badlogic.gdx.math.Vector2;
+
+import java.util.ArrayList;
+
+public class Level {
+
+    private String name;
+    private int width;
+    private int height;
+
+    // Entity coordinates, y grows upwards like in the rendered map
+    private ArrayList<Vector2> walls;
+    private ArrayList<Vector2> goals;
+    private ArrayList<Vector2> boxes;
+    private Vector2 player;
+
+    /**
+     * Constructs a Level object which holds a Pukoban level as plain coordinate lists,
+     * independent of how the level was loaded or whether it is rendered.
+     *
+     * @param name the level name
+     * @param width the map width in tiles
+     * @param height the map height in tiles
+     * @param walls the list of wall coordinates
+     * @param goals the list of goal coordinates
+     * @param boxes the list of box coordinates
+     * @param player the player coordinates
+     */
+    public Level(String name, int width, int height, ArrayList<Vector2> walls, ArrayList<Vector2> goals, ArrayList<Vector2> boxes, Vector2 player) {
+        this.name = name;
+        this.width = width;
+        this.height = height;
+        this.walls = walls;
+        this.goals = goals;
+        this.boxes = boxes;
+        this.player = player;
+    }
+
+    /**
+     * @return the level name
+     */
+    public String getName() {
+        return this.name;
+    }
+
+    /**
+     * @return the map width in tiles
+     */
+    public int getWidth() {
+        return this.width;
+    }
+
+    /**
+     * @return the map height in tiles
+     */
+    public int getHeight() {
+        return this.height;
+    }
+
+    /**
+     * @return the list of wall coordinates
+     */
+    public ArrayList<Vector2> getWalls() {
+        return this.walls;
+    }
+
+    /**
+     * @return the list of goal coordinates
+     */
+    public ArrayList<Vector2> getGoals() {
+        return this.goals;
+    }
+
+    /**
+     * @return the list of box coordinates at the start of the level
+     */
+    public ArrayList<Vector2> getBoxes() {
+        return this.boxes;
+    }
+
+    /**
+     * @return the player coordinates at the start of the level
+     */
+    public Vector2 getPlayer() {
+        return this.player;
+    }
+}
@@ -0,0 +1,184 @@
+package com.mygdx.astar;
+
+import com.badlogic.gdx.math.Vector2;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+
+public class LevelReader {
+
+    // Tiled map attributes and values
+    private static final String csvEncoding = "csv";
+    private static final String nameProperty = "name";
+
+    /**
+     * Reads a Tiled (TMX) map straight from disk without the libGDX file and asset handling,
+     * so levels can be loaded without an application running. Only CSV encoded layers are
+     * supported, which is what the bundled levels use.
+     *
+     * @param file the TMX file to read
+     * @return the level described by the map
+     * @throws IOException if the file can't be read or isn't a supported Pukoban map
+     */
+    public Level read(File file) throws IOException {
+
+        Document doc = this.parse(file);
+        Element map = doc.getDocumentElement();
+
+        int width = this.intAttribute(map, "width");
+        int height = this.intAttribute(map, "height");
+
+        // Tile names by global tile ID, from every tileset the map uses
+        HashMap<Integer, String> tileNames = new HashMap<Integer, String>();
+        NodeList tilesets = map.getElementsByTagName("tileset");
+        for(int i = 0; i < tilesets.getLength(); i++) {
+
+            Element tileset = (Element) tilesets.item(i);
+            int firstGid = this.intAttribute(tileset, "firstgid");
+
+            // External tilesets live next to the map
+            if(tileset.hasAttribute("source")) {
+                File source = new File(file.getParentFile(), tileset.getAttribute("source"));
+                tileset = this.parse(source).getDocumentElement();
+            }
+
+            this.readTileNames(tileset, firstGid, tileNames);
+        }
+
+        ArrayList<Vector2> walls = this.getEntities(map, AStar.baseLayer, AStar.wallType, width, height, tileNames);
+        ArrayList<Vector2> goals = this.getEntities(map, AStar.goalLayer, AStar.goalType, width, height, tileNames);
+        ArrayList<Vector2> boxes = this.getEntities(map, AStar.boxLayer, AStar.boxType, width, height, tileNames);
+        ArrayList<Vector2> player = this.getEntities(map, AStar.playerLayer, AStar.playerType, width, height, tileNames);
+
+        if(player.isEmpty()) throw new IOException(file + " has no player");
+
+        String name = file.getName();
+        int extension = name.lastIndexOf('.');
+        if(extension > 0) name = name.substring(0, extension);
+
+        return new Level(name, width, height, walls, goals, boxes, player.get(0));
+    }
+
+    /**
+     * Parses an XML file.
+     *
+     * @param file the file to parse
+     * @return the parsed document
+     * @throws IOException if the file can't be read or parsed
+     */
+    private Document parse(File file) throws IOException {
+
+        try {
+            DocumentBuilder builder = DocumentBuilderFactory.newInstance().newDocumentBuilder();
+            return builder.parse(file);
+        } catch(IOException e) {
+            throw e;
+        } catch(Exception e) {
+            throw new IOException("Couldn't parse " + file + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Adds the name property of each tile in a tileset to the tile names map.
+     *
+     * @param tileset the tileset element to use
+     * @param firstGid the global tile ID of the first tile in the tileset
+     * @param tileNames the map the tile names are added to
+     */
+    private void readTileNames(Element tileset, int firstGid, HashMap<Integer, String> tileNames) {
+
+        NodeList tiles = tileset.getElementsByTagName("tile");
+        for(int i = 0; i < tiles.getLength(); i++) {
+
+            Element tile = (Element) tiles.item(i);
+            NodeList properties = tile.getElementsByTagName("property");
+
+            for(int j = 0; j < properties.getLength(); j++) {
+                Element property = (Element) properties.item(j);
+                if(property.getAttribute("name").equals(nameProperty)) {
+                    tileNames.put(firstGid + Integer.parseInt(tile.getAttribute("id")), property.getAttribute("value"));
+                }
+            }
+        }
+    }
+
+    /**
+     * Cycles through a map layer and finds all the entities asked for to build a list of their
+     * coordinates. Rows are flipped so coordinates match the ones libGDX gives a loaded map.
+     *
+     * @param map the map element to use
+     * @param layerName the name of the layer to search
+     * @param type the entity to look for
+     * @param width the map width in tiles
+     * @param height the map height in tiles
+     * @param tileNames the tile names by global tile ID
+     * @return the list of coordinates for this entity
+     * @throws IOException if the layer is missing or not CSV encoded
+     */
+    private ArrayList<Vector2> getEntities(Element map, String layerName, String type, int width, int height, HashMap<Integer, String> tileNames) throws IOException {
+
+        Element data = this.findLayerData(map, layerName);
+        String[] gids = data.getTextContent().trim().split("\\s*,\\s*");
+        if(gids.length != width * height) throw new IOException("Layer " + layerName + " doesn't match the map size");
+
+        ArrayList<Vector2> list = new ArrayList<Vector2>();
+
+        for(int row = 0; row < height; row++) {
+            for(int x = 0; x < width; x++) {
+
+                // Upper bits of a global tile ID are flip flags
+                int gid = (int) (Long.parseLong(gids[row * width + x]) & 0x1FFFFFFFL);
+                if(type.equals(tileNames.get(gid))) list.add(new Vector2(x, height - 1 - row));
+            }
+        }
+
+        return list;
+    }
+
+    /**
+     * @param map the map element to use
+     * @param layerName the name of the layer to find
+     * @return the CSV data element of the layer
+     * @throws IOException if the layer is missing or not CSV encoded
+     */
+    private Element findLayerData(Element map, String layerName) throws IOException {
+
+        NodeList layers = map.getElementsByTagName("layer");
+        for(int i = 0; i < layers.getLength(); i++) {
+
+            Element layer = (Element) layers.item(i);
+            if(!layer.getAttribute("name").equals(layerName)) continue;
+
+            Element data = (Element) layer.getElementsByTagName("data").item(0);
+            if(data == null || !csvEncoding.equals(data.getAttribute("encoding"))) {
+                throw new IOException("Layer " + layerName + " isn't CSV encoded");
+            }
+
+            return data;
+        }
+
+        throw new IOException("Missing layer " + layerName);
+    }
+
+    /**
+     * @param element the element to use
+     * @param name the attribute name
+     * @return the attribute value as an integer
+     * @throws IOException if the attribute is missing or not a number
+     */
+    private int intAttribute(Element element, String name) throws IOException {
+
+        try {
+            return Integer.parseInt(element.getAttribute(name));
+        } catch(NumberFormatException e) {
+            throw new IOException("Bad " + name + " attribute in " + element.getTagName());
+        }
+    }
+}
@@ -0,0 +1,446 @@
+package com.mygdx.astar;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+
+public class MappedNodeArena implements NodeStore {
+
+    // Nodes per segment file, segments are mapped as the arena fills and only ever appended to
+    private static final int segmentBits = 18;
+    private static final int segmentSize = 1 << segmentBits;
+    private static final int segmentMask = segmentSize - 1;
+
+    // Initial index size, doubled whenever it gets half full, up to the largest power of two an array can hold
+    private static final int initialIndexBits = 16;
+    private static final int maxIndexBits = 30;
+
+    // Index slots per mapping of the index file, a single mapping can't go past 2 GB
+    private static final int indexChunkBits = 20;
+    private static final int indexChunkMask = (1 << indexChunkBits) - 1;
+
+    // Field offsets within a node record, after the box words
+    private static final int hashOffset = 0;
+    private static final int playerOffset = 8;
+    private static final int gCostOffset = 12;
+    private static final int heuristicOffset = 16;
+    private static final int parentOffset = 20;
+    private static final int boxMoveOffset = 24;
+    private static final int openCostOffset = 28;
+    private static final int fieldBytes = 32;
+
+    private File directory;
+    private long maxBytes;
+    private int wordCount;
+    private int recordBytes;
+    private int size = 0;
+
+    // The directory holding this search's segment and index files, created with the first segment
+    private File searchDir;
+    private ArrayList<File> segmentFiles = new ArrayList<File>();
+    private ArrayList<ByteBuffer> segments = new ArrayList<ByteBuffer>();
+
+    // Open addressing index, a tag of 8 hash bits per slot on the heap, 0 is empty, and in the
+    // index file the slot entry holding node + 1 in the high half and a 32-bit hash fragment in the low half
+    private byte[] tags;
+    private int indexMask;
+    private File indexFile;
+    private ArrayList<ByteBuffer> indexChunks = new ArrayList<ByteBuffer>();
+
+    /**
+     * Constructs a MappedNodeArena object which stores search nodes in memory-mapped segment
+     * files instead of on the heap, so the nodes reached can outgrow physical memory and the
+     * operating system pages them in and out. Nodes are appended in the order they're reached,
+     * which keeps writes sequential and the frontier in the last few segments. The index is
+     * mapped from a file as well, only a tag of 8 hash bits per slot stays on the heap, 2 to 4
+     * bytes per node, so states never reached before are almost always turned away without
+     * touching the disk. Each node takes 8 bytes per box word plus 32 on disk, and 16 to 32
+     * more in the index file.
+     *
+     * @param staticMap the static map elements of the level the nodes belong to
+     * @param directory the directory to create the segment files under, created if missing
+     * @param maxBytes the most bytes the segment and index files may take, counted in whole segments
+     */
+    public MappedNodeArena(StaticMap staticMap, File directory, long maxBytes) {
+        this.directory = directory;
+        this.maxBytes = maxBytes;
+        this.wordCount = staticMap.getWordCount();
+        this.recordBytes = this.wordCount * 8 + fieldBytes;
+    }
+
+    @Override
+    public int add(long[] boxes, int player, long hash) {
+
+        if((this.size & segmentMask) == 0) this.addSegment();
+
+        // Keep the index at most half full so probes stay short
+        if(this.tags == null || (this.size + 1) * 2L > this.tags.length) this.growIndex();
+
+        int node = this.size++;
+        ByteBuffer segment = this.segments.get(node >>> segmentBits);
+        int base = (node & segmentMask) * this.recordBytes;
+
+        for(int i = 0; i < this.wordCount; i++) segment.putLong(base + i * 8, boxes[i]);
+
+        // Nodes start with no parent, no box move and not queued
+        int fields = base + this.wordCount * 8;
+        segment.putLong(fields + hashOffset, hash);
+        segment.putInt(fields + playerOffset, player);
+        segment.putInt(fields + gCostOffset, 0);
+        segment.putInt(fields + heuristicOffset, 0);
+        segment.putInt(fields + parentOffset, -1);
+        segment.putInt(fields + boxMoveOffset, -1);
+        segment.putInt(fields + openCostOffset, -1);
+
+        this.indexEntry(((long) (node + 1) << 32) | (fragment(hash) & 0xffffffffL), tag(hash));
+
+        return node;
+    }
+
+    @Override
+    public int find(long[] boxes, int player, long hash) {
+
+        if(this.tags == null) return -1;
+
+        int fragment = fragment(hash);
+        byte tag = tag(hash);
+
+        for(int slot = fragment & this.indexMask; this.tags[slot] != 0; slot = (slot + 1) & this.indexMask) {
+
+            // Only slots with a matching tag are read from the index file, and only matching fragments from the segments
+            if(this.tags[slot] != tag) continue;
+
+            long entry = this.getEntry(this.indexChunks, slot);
+            if((int) entry != fragment) continue;
+
+            int node = (int) (entry >>> 32) - 1;
+            if(this.getHash(node) == hash && this.getPlayerCell(node) == player && this.sameBoxes(node, boxes)) return node;
+        }
+
+        return -1;
+    }
+
+    @Override
+    public MyVertex toVertex(int node) {
+
+        ByteBuffer segment = this.segments.get(node >>> segmentBits);
+        int base = (node & segmentMask) * this.recordBytes;
+
+        long[] boxes = new long[this.wordCount];
+        for(int i = 0; i < this.wordCount; i++) boxes[i] = segment.getLong(base + i * 8);
+
+        MyVertex vert = new MyVertex(boxes, this.getPlayerCell(node), this.getHash(node));
+        vert.setgCost(this.getgCost(node));
+        vert.setHeuristicCost(this.getHeuristicCost(node));
+        vert.setBoxMove(this.getBoxMove(node));
+
+        return vert;
+    }
+
+    @Override
+    public boolean checkGoal(int node, long[] goalBits) {
+
+        ByteBuffer segment = this.segments.get(node >>> segmentBits);
+        int base = (node & segmentMask) * this.recordBytes;
+
+        for(int i = 0; i < goalBits.length; i++) {
+            if((segment.getLong(base + i * 8) & goalBits[i]) != goalBits[i]) return false;
+        }
+
+        return true;
+    }
+
+    @Override
+    public long getHash(int node) {
+        return this.segments.get(node >>> segmentBits).getLong(this.fieldsAt(node) + hashOffset);
+    }
+
+    @Override
+    public int getPlayerCell(int node) {
+        return this.segments.get(node >>> segmentBits).getInt(this.fieldsAt(node) + playerOffset);
+    }
+
+    @Override
+    public int getgCost(int node) {
+        return this.segments.get(node >>> segmentBits).getInt(this.fieldsAt(node) + gCostOffset);
+    }
+
+    @Override
+    public void setgCost(int node, int gCost) {
+        this.segments.get(node >>> segmentBits).putInt(this.fieldsAt(node) + gCostOffset, gCost);
+    }
+
+    @Override
+    public int getHeuristicCost(int node) {
+        return this.segments.get(node >>> segmentBits).getInt(this.fieldsAt(node) + heuristicOffset);
+    }
+
+    @Override
+    public void setHeuristicCost(int node, int heuristicCost) {
+        this.segments.get(node >>> segmentBits).putInt(this.fieldsAt(node) + heuristicOffset, heuristicCost);
+    }
+
+    @Override
+    public int getParent(int node) {
+        return this.segments.get(node >>> segmentBits).getInt(this.fieldsAt(node) + parentOffset);
+    }
+
+    @Override
+    public void setParent(int node, int parent) {
+        this.segments.get(node >>> segmentBits).putInt(this.fieldsAt(node) + parentOffset, parent);
+    }
+
+    @Override
+    public int getBoxMove(int node) {
+        return this.segments.get(node >>> segmentBits).getInt(this.fieldsAt(node) + boxMoveOffset);
+    }
+
+    @Override
+    public void setBoxMove(int node, int boxMove) {
+        this.segments.get(node >>> segmentBits).putInt(this.fieldsAt(node) + boxMoveOffset, boxMove);
+    }
+
+    @Override
+    public int getOpenCost(int node) {
+        return this.segments.get(node >>> segmentBits).getInt(this.fieldsAt(node) + openCostOffset);
+    }
+
+    @Override
+    public void setOpenCost(int node, int openCost) {
+        this.segments.get(node >>> segmentBits).putInt(this.fieldsAt(node) + openCostOffset, openCost);
+    }
+
+    @Override
+    public int size() {
+        return this.size;
+    }
+
+    @Override
+    public long getAllocatedBytes() {
+        return this.getSegmentBytes() + this.getIndexBytes() + (this.tags == null ? 0 : this.tags.length);
+    }
+
+    @Override
+    public void close() {
+
+        // Mappings stay valid until collected, but unlinked files free their disk space once they go
+        this.segments.clear();
+        this.indexChunks.clear();
+        this.tags = null;
+
+        for(File file : this.segmentFiles) this.delete(file);
+        this.segmentFiles.clear();
+
+        if(this.indexFile != null) this.delete(this.indexFile);
+        this.indexFile = null;
+
+        if(this.searchDir != null && !this.searchDir.delete()) this.searchDir.deleteOnExit();
+        this.searchDir = null;
+    }
+
+    /**
+     * Creates and maps another segment file, creating the directory for them with the first.
+     *
+     * @throws IllegalStateException if the segment would go over the size cap or can't be mapped
+     */
+    private void addSegment() {
+
+        long segmentBytes = (long) segmentSize * this.recordBytes;
+        this.checkCap(this.getSegmentBytes() + segmentBytes + this.getIndexBytes());
+
+        File file = this.createFile("segment-" + this.segments.size());
+        this.segmentFiles.add(file);
+        this.segments.addAll(this.map(file, segmentBytes, segmentBytes));
+    }
+
+    /**
+     * Creates the index, or doubles it into a new index file and places every entry again from
+     * its hash fragment. The old file is read in order and the segments aren't read at all.
+     *
+     * @throws IllegalStateException if the index would go over the size cap, the most slots, or can't be mapped
+     */
+    private void growIndex() {
+
+        if(this.tags != null && this.tags.length >= 1 << maxIndexBits) throw new IllegalStateException("External memory index is full at " + this.size + " nodes");
+
+        // The old index file is only deleted once every entry is in the new one
+        int slots = this.tags == null ? 1 << initialIndexBits : this.tags.length * 2;
+        this.checkCap(this.getSegmentBytes() + this.getIndexBytes() + slots * 8L);
+
+        byte[] oldTags = this.tags;
+        ArrayList<ByteBuffer> oldChunks = this.indexChunks;
+        File oldFile = this.indexFile;
+
+        this.tags = new byte[slots];
+        this.indexMask = slots - 1;
+        this.indexFile = this.createFile("index-" + Integer.numberOfTrailingZeros(slots));
+        this.indexChunks = this.map(this.indexFile, slots * 8L, 8L << indexChunkBits);
+
+        if(oldTags == null) return;
+
+        for(int slot = 0; slot < oldTags.length; slot++) {
+            if(oldTags[slot] != 0) this.indexEntry(this.getEntry(oldChunks, slot), oldTags[slot]);
+        }
+
+        oldChunks.clear();
+        this.delete(oldFile);
+    }
+
+    /**
+     * @param entry the node + 1 and hash fragment to place in the index
+     * @param tag the tag of the node hash
+     */
+    private void indexEntry(long entry, byte tag) {
+
+        int slot = (int) entry & this.indexMask;
+        while(this.tags[slot] != 0) slot = (slot + 1) & this.indexMask;
+
+        this.tags[slot] = tag;
+        this.indexChunks.get(slot >>> indexChunkBits).putLong((slot & indexChunkMask) * 8, entry);
+    }
+
+    /**
+     * @param chunks the mappings of the index file to read
+     * @param slot the index slot
+     * @return the entry in the slot
+     */
+    private long getEntry(ArrayList<ByteBuffer> chunks, int slot) {
+        return chunks.get(slot >>> indexChunkBits).getLong((slot & indexChunkMask) * 8);
+    }
+
+    /**
+     * @param bytes the bytes the files would take
+     * @throws IllegalStateException if that goes over the size cap
+     */
+    private void checkCap(long bytes) {
+        if(bytes > this.maxBytes) {
+            throw new IllegalStateException("External memory is full at " + this.size + " nodes in " + (this.maxBytes >> 20) + " MB");
+        }
+    }
+
+    /**
+     * Creates a file in this search's directory, creating the directory with the first file.
+     *
+     * @param name the name of the file
+     * @return the file, not created yet
+     * @throws IllegalStateException if the directory can't be created
+     */
+    private File createFile(String name) {
+
+        if(this.searchDir == null) {
+            try {
+
+                // A directory of its own so concurrent searches never share files
+                if(!this.directory.isDirectory() && !this.directory.mkdirs()) throw new IOException("can't create " + this.directory);
+                File dir = File.createTempFile("search", "", this.directory);
+                if(!dir.delete() || !dir.mkdir()) throw new IOException("can't create " + dir);
+                this.searchDir = dir;
+
+            } catch(IOException e) {
+                throw new IllegalStateException("Can't map external memory under " + this.directory + ": " + e.getMessage());
+            }
+        }
+
+        return new File(this.searchDir, name);
+    }
+
+    /**
+     * Creates a file of the given size and maps it in chunks.
+     *
+     * @param file the file to create
+     * @param bytes the size of the file
+     * @param chunkBytes the most bytes of each mapping
+     * @return the mappings in file order
+     * @throws IllegalStateException if the file can't be mapped
+     */
+    private ArrayList<ByteBuffer> map(File file, long bytes, long chunkBytes) {
+
+        ArrayList<ByteBuffer> chunks = new ArrayList<ByteBuffer>();
+
+        try {
+            RandomAccessFile raf = new RandomAccessFile(file, "rw");
+            try {
+                for(long offset = 0; offset < bytes; offset += chunkBytes) {
+                    ByteBuffer chunk = raf.getChannel().map(FileChannel.MapMode.READ_WRITE, offset, Math.min(chunkBytes, bytes - offset));
+                    chunks.add(chunk.order(ByteOrder.nativeOrder()));
+                }
+            } finally {
+                raf.close();
+            }
+
+        } catch(IOException e) {
+            throw new IllegalStateException("Can't map external memory under " + this.directory + ": " + e.getMessage());
+        }
+
+        return chunks;
+    }
+
+    /**
+     * Deletes a file, or leaves it to be deleted on exit if it can't be deleted now.
+     *
+     * @param file the file to delete
+     */
+    private void delete(File file) {
+        if(!file.delete()) file.deleteOnExit();
+    }
+
+    /**
+     * @return the bytes taken by the segment files
+     */
+    private long getSegmentBytes() {
+        return (long) this.segments.size() * segmentSize * this.recordBytes;
+    }
+
+    /**
+     * @return the bytes taken by the index file
+     */
+    private long getIndexBytes() {
+        return this.tags == null ? 0 : this.tags.length * 8L;
+    }
+
+    /**
+     * @param node the index of the node
+     * @return the offset of the node fields within its segment
+     */
+    private int fieldsAt(int node) {
+        return (node & segmentMask) * this.recordBytes + this.wordCount * 8;
+    }
+
+    /**
+     * @param node the index of the node
+     * @param boxes the bitset with a bit set for each box cell
+     * @return whether the node has the same boxes
+     */
+    private boolean sameBoxes(int node, long[] boxes) {
+
+        ByteBuffer segment = this.segments.get(node >>> segmentBits);
+        int base = (node & segmentMask) * this.recordBytes;
+
+        for(int i = 0; i < this.wordCount; i++) {
+            if(segment.getLong(base + i * 8) != boxes[i]) return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * @param hash the Zobrist hash of a board state
+     * @return the 32 bits of the hash kept in the index, also giving the slot probing starts at
+     */
+    private static int fragment(long hash) {
+        return (int) (hash ^ (hash >>> 32));
+    }
+
+    /**
+     * @param hash the Zobrist hash of a board state
+     * @return the top 8 bits of the hash kept on the heap, never 0 so it can't mark an empty slot
+     */
+    private static byte tag(long hash) {
+        int tag = (int) (hash >>> 56);
+        return (byte) (tag == 0 ? 1 : tag);
+    }
+}
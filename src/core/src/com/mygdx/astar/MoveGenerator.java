@@ -0,0 +1,381 @@
+package com.mygdx.astar;
+
+import java.util.ArrayList;
+import java.util.Collections;
+
+public class MoveGenerator {
+
+    private enum PlayerBoxCol {NO_MOVE, PUSH, PULL, FREE_SPACE}
+
+    private StaticMap staticMap;
+
+    // Flood fill state reused between calls, one set for the expanded vertex and one for its successors
+    private int[] regionCells;
+    private int[] regionMarks;
+    private int regionStamp = 0;
+    private int[] canonicalQueue;
+    private int[] canonicalMarks;
+    private int canonicalStamp = 0;
+
+    /**
+     * Constructs a MoveGenerator object responsible for generating the board states
+     * reachable in one player move using Pukoban rules.
+     *
+     * @param staticMap the static map elements of the current map
+     */
+    public MoveGenerator(StaticMap staticMap) {
+
+        this.staticMap = staticMap;
+        this.regionCells = new int[staticMap.getCellCount()];
+        this.regionMarks = new int[staticMap.getCellCount()];
+        this.canonicalQueue = new int[staticMap.getCellCount()];
+        this.canonicalMarks = new int[staticMap.getCellCount()];
+    }
+
+    /**
+     * Computes the possible vertices to reach from the given starting vertex using Pukoban rules.
+     *
+     * @param vert the vertex to use as starting point
+     * @return the list of vertices possible from the given starting vertex
+     */
+    public ArrayList<MyVertex> calcPossibleMoves(MyVertex vert) {
+
+        ArrayList<MyVertex> moves = new ArrayList<MyVertex>();
+        int pCell = vert.getPlayerCell();
+
+        if(AStar.debugFlag) {
+            Boolean[] bools = new Boolean[StaticMap.directionCount];
+            for(int dir = 0; dir < StaticMap.directionCount; dir++) {
+                bools[dir] = !this.staticMap.isWall(this.staticMap.getNeighbour(dir, pCell));
+            }
+            DebugPrint.getInstance().printFlags("MoveFlags", bools);
+        }
+
+        // Simulate all board states for every player direction possible from starting state, disregards boxes
+        for(int dir = 0; dir < StaticMap.directionCount; dir++) {
+            int moveCell = this.staticMap.getNeighbour(dir, pCell);
+            if(!this.staticMap.isWall(moveCell)) this.simulatePukobanState(vert, moveCell, dir, moves);
+        }
+
+        return moves;
+    }
+
+    /**
+     * Computes the new board state using the player cell and the player movement direction.
+     * Takes in consideration whether the box movement is a pull or a push. The Zobrist hash is
+     * updated from the parent hash with the keys of the cells that changed.
+     *
+     * @param vert the vertex to use as starting point
+     * @param pCell the player cell after simulating movement
+     * @param direction the direction used to simulate movement
+     * @param isPull whether the move is a pull or a push
+     * @return the vertex with the new box positions
+     */
+    private MyVertex moveBoxes(MyVertex vert, int pCell, int direction, boolean isPull) {
+
+        long[] tempBoxes = vert.getBoxWords().clone();
+
+        // Pulling box, it sits on the opposite side of the player
+        int oldCell = pCell;
+        if(isPull) {
+            int opposite = StaticMap.opposite(direction);
+            oldCell = this.staticMap.getNeighbour(opposite, this.staticMap.getNeighbour(opposite, pCell));
+        }
+        int newCell = this.staticMap.getNeighbour(direction, oldCell);
+
+        tempBoxes[oldCell >>> 6] &= ~(1L << oldCell);
+        tempBoxes[newCell >>> 6] |= 1L << newCell;
+
+        long hash = this.movePlayerHash(vert, pCell) ^ this.staticMap.getBoxKey(oldCell) ^ this.staticMap.getBoxKey(newCell);
+
+        return new MyVertex(tempBoxes, pCell, hash);
+    }
+
+    /**
+     * Updates the Zobrist hash of a vertex for the player moving to another cell.
+     *
+     * @param vert the vertex to use as starting point
+     * @param pCell the player cell after simulating movement
+     * @return the hash with the player on the new cell
+     */
+    private long movePlayerHash(MyVertex vert, int pCell) {
+        return vert.getHash() ^ this.staticMap.getPlayerKey(vert.getPlayerCell()) ^ this.staticMap.getPlayerKey(pCell);
+    }
+
+    /**
+     * Simulates the effect of player movement on the map boxes. Adds the new board states
+     * created by that movement, if any, to the given list.
+     *
+     * @param vert the vertex to use as starting point
+     * @param pCell the player cell after simulating movement
+     * @param direction the direction used to simulate movement
+     * @param verts the list the possible board states created by this movement are added to
+     */
+    private void simulatePukobanState(MyVertex vert, int pCell, int direction, ArrayList<MyVertex> verts) {
+
+        switch(this.simulatePlayerMove(vert, pCell, direction)) {
+
+            case PUSH:
+                verts.add(this.moveBoxes(vert, pCell, direction, false));
+                break;
+
+            case PULL:
+                verts.add(this.moveBoxes(vert, pCell, direction, true));
+                verts.add(new MyVertex(vert.getBoxWords(), pCell, this.movePlayerHash(vert, pCell)));
+                break;
+
+            case FREE_SPACE:
+                verts.add(new MyVertex(vert.getBoxWords(), pCell, this.movePlayerHash(vert, pCell)));
+                break;
+
+            default:
+                break;
+        }
+    }
+
+    /**
+     * Simulates the effects of player movement on the map boxes. Checks whether the movement
+     * can be a push or pull, and also if the movement isn't possible due to box collision.
+     *
+     * @param vert the vertex to use as starting point
+     * @param pCell the player cell after simulating movement
+     * @param direction the direction used to simulate movement
+     * @return the enumerator describing the type of movement that occurred
+     */
+    private PlayerBoxCol simulatePlayerMove(MyVertex vert, int pCell, int direction) {
+
+        // Box is pushed
+        if(vert.hasBox(pCell)) {
+
+            int boxCell = this.staticMap.getNeighbour(direction, pCell);
+
+            // Box can move
+            if(!this.staticMap.isWall(boxCell) && !vert.hasBox(boxCell)) {
+                return PlayerBoxCol.PUSH;
+            } else return PlayerBoxCol.NO_MOVE;
+
+        // Free space, might pull or not
+        } else {
+
+            // Walls are never boxes so the border sentinel keeps this inside the grid
+            int opposite = StaticMap.opposite(direction);
+            int checkForBox = this.staticMap.getNeighbour(opposite, this.staticMap.getNeighbour(opposite, pCell));
+
+            // Box to the opposite side of player
+            if(vert.hasBox(checkForBox)) {
+                return PlayerBoxCol.PULL;
+            // No boxes for pushing/pulling
+            } else return PlayerBoxCol.FREE_SPACE;
+        }
+    }
+
+    /**
+     * Computes the vertices reachable from the given vertex with one push or pull, wherever the
+     * player has to walk to first. Walking alone never creates a vertex, and every vertex keeps
+     * the lowest cell of its player region as the player cell, so board states that only differ
+     * by where the player stands in the same region are the same vertex. Each vertex records the
+     * box move that created it so the walking can be filled back in afterwards.
+     *
+     * @param vert the vertex to use as starting point
+     * @return the list of vertices one box move away from the given starting vertex
+     */
+    public ArrayList<MyVertex> calcBoxMoves(MyVertex vert) {
+
+        ArrayList<MyVertex> moves = new ArrayList<MyVertex>();
+        long[] boxes = vert.getBoxWords();
+        int regionSize = this.floodRegion(boxes, vert.getPlayerCell());
+
+        for(int i = 0; i < regionSize; i++) {
+
+            int cell = this.regionCells[i];
+
+            for(int dir = 0; dir < StaticMap.directionCount; dir++) {
+
+                int moveCell = this.staticMap.getNeighbour(dir, cell);
+                if(this.staticMap.isWall(moveCell)) continue;
+
+                // Push the box in front of the player
+                if(vert.hasBox(moveCell)) {
+                    int boxCell = this.staticMap.getNeighbour(dir, moveCell);
+                    if(!this.staticMap.isWall(boxCell) && !vert.hasBox(boxCell)) {
+                        moves.add(this.moveBoxNormalized(boxes, moveCell, boxCell, moveCell, cell, dir));
+                    }
+                    continue;
+                }
+
+                // Pull the box behind the player
+                int behindCell = this.staticMap.getNeighbour(StaticMap.opposite(dir), cell);
+                if(vert.hasBox(behindCell)) {
+                    moves.add(this.moveBoxNormalized(boxes, behindCell, cell, moveCell, cell, dir));
+                }
+            }
+        }
+
+        return moves;
+    }
+
+    /**
+     * Finds the lowest cell of the player region, used as the player cell of normalised vertices.
+     *
+     * @param vert the vertex to normalise
+     * @return the vertex with the lowest cell of its player region as the player cell
+     */
+    public MyVertex normalize(MyVertex vert) {
+
+        long[] boxes = vert.getBoxWords();
+        int player = this.canonicalPlayer(boxes, vert.getPlayerCell());
+
+        return new MyVertex(boxes, player, this.staticMap.zobristHash(boxes, player));
+    }
+
+    /**
+     * Rebuilds the full list of player moves from a path of box moves, by walking the player
+     * along a shortest route to the cell each box move starts from.
+     *
+     * @param boxMoves the normalised vertices from the starting state to the goal state
+     * @param startPlayer the player cell at the start of the level
+     * @return the list of map states from the goal state back to the starting state
+     */
+    public ArrayList<MyVertex> fillInWalks(ArrayList<MyVertex> boxMoves, int startPlayer) {
+
+        ArrayList<MyVertex> steps = new ArrayList<MyVertex>();
+        int[] walkFrom = new int[this.staticMap.getCellCount()];
+
+        long[] boxes = boxMoves.get(0).getBoxWords();
+        int player = startPlayer;
+        steps.add(new MyVertex(boxes, player, this.staticMap.zobristHash(boxes, player)));
+
+        for(int i = 1; i < boxMoves.size(); i++) {
+
+            int move = boxMoves.get(i).getBoxMove();
+            int fromCell = move / StaticMap.directionCount;
+            int direction = move % StaticMap.directionCount;
+
+            // Walk to the cell the box move starts from, backwards from there to the player
+            this.floodWalk(boxes, player, fromCell, walkFrom);
+            int walkStart = steps.size();
+            for(int cell = fromCell; cell != player; cell = walkFrom[cell]) {
+                steps.add(walkStart, new MyVertex(boxes, cell, this.staticMap.zobristHash(boxes, cell)));
+            }
+
+            // Push or pull, the player ends one step further in the move direction either way
+            boxes = boxMoves.get(i).getBoxWords();
+            player = this.staticMap.getNeighbour(direction, fromCell);
+            steps.add(new MyVertex(boxes, player, this.staticMap.zobristHash(boxes, player)));
+        }
+
+        Collections.reverse(steps);
+        return steps;
+    }
+
+    /**
+     * Builds the normalised vertex for a box move.
+     *
+     * @param boxes the bitset with a bit set for each box cell before the move
+     * @param oldCell the cell the box moves from
+     * @param newCell the cell the box moves to
+     * @param pCell the player cell after the move
+     * @param fromCell the player cell the move starts from
+     * @param direction the direction the player moves in
+     * @return the normalised vertex after the move
+     */
+    private MyVertex moveBoxNormalized(long[] boxes, int oldCell, int newCell, int pCell, int fromCell, int direction) {
+
+        long[] tempBoxes = boxes.clone();
+        tempBoxes[oldCell >>> 6] &= ~(1L << oldCell);
+        tempBoxes[newCell >>> 6] |= 1L << newCell;
+
+        int player = this.canonicalPlayer(tempBoxes, pCell);
+        MyVertex vert = new MyVertex(tempBoxes, player, this.staticMap.zobristHash(tempBoxes, player));
+        vert.setBoxMove(fromCell * StaticMap.directionCount + direction);
+
+        return vert;
+    }
+
+    /**
+     * Flood fills the player region into the region cells.
+     *
+     * @param boxes the bitset with a bit set for each box cell
+     * @param pCell the player cell
+     * @return the number of cells in the region
+     */
+    private int floodRegion(long[] boxes, int pCell) {
+
+        int stamp = ++this.regionStamp;
+        int size = 0;
+
+        this.regionMarks[pCell] = stamp;
+        this.regionCells[size++] = pCell;
+
+        for(int head = 0; head < size; head++) {
+            int cell = this.regionCells[head];
+            for(int dir = 0; dir < StaticMap.directionCount; dir++) {
+                int adjCell = this.staticMap.getNeighbour(dir, cell);
+                if(this.regionMarks[adjCell] == stamp || this.staticMap.isWall(adjCell) || (boxes[adjCell >>> 6] & (1L << adjCell)) != 0) continue;
+                this.regionMarks[adjCell] = stamp;
+                this.regionCells[size++] = adjCell;
+            }
+        }
+
+        return size;
+    }
+
+    /**
+     * Flood fills the player region and finds its lowest cell.
+     *
+     * @param boxes the bitset with a bit set for each box cell
+     * @param pCell the player cell
+     * @return the lowest cell the player can walk to
+     */
+    private int canonicalPlayer(long[] boxes, int pCell) {
+
+        int stamp = ++this.canonicalStamp;
+        int size = 0;
+        int lowest = pCell;
+
+        this.canonicalMarks[pCell] = stamp;
+        this.canonicalQueue[size++] = pCell;
+
+        for(int head = 0; head < size; head++) {
+            int cell = this.canonicalQueue[head];
+            if(cell < lowest) lowest = cell;
+            for(int dir = 0; dir < StaticMap.directionCount; dir++) {
+                int adjCell = this.staticMap.getNeighbour(dir, cell);
+                if(this.canonicalMarks[adjCell] == stamp || this.staticMap.isWall(adjCell) || (boxes[adjCell >>> 6] & (1L << adjCell)) != 0) continue;
+                this.canonicalMarks[adjCell] = stamp;
+                this.canonicalQueue[size++] = adjCell;
+            }
+        }
+
+        return lowest;
+    }
+
+    /**
+     * Breadth-first search for a walk between two cells, recording for each cell reached
+     * the cell it was reached from.
+     *
+     * @param boxes the bitset with a bit set for each box cell
+     * @param pCell the player cell to walk from
+     * @param target the cell to walk to
+     * @param walkFrom the previous cell on the walk for each cell reached
+     */
+    private void floodWalk(long[] boxes, int pCell, int target, int[] walkFrom) {
+
+        int stamp = ++this.canonicalStamp;
+        int size = 0;
+
+        this.canonicalMarks[pCell] = stamp;
+        this.canonicalQueue[size++] = pCell;
+
+        for(int head = 0; head < size && this.canonicalMarks[target] != stamp; head++) {
+            int cell = this.canonicalQueue[head];
+            for(int dir = 0; dir < StaticMap.directionCount; dir++) {
+                int adjCell = this.staticMap.getNeighbour(dir, cell);
+                if(this.canonicalMarks[adjCell] == stamp || this.staticMap.isWall(adjCell) || (boxes[adjCell >>> 6] & (1L << adjCell)) != 0) continue;
+                this.canonicalMarks[adjCell] = stamp;
+                this.canonicalQueue[size++] = adjCell;
+                walkFrom[adjCell] = cell;
+            }
+        }
+    }
+}
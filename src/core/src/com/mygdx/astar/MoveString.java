@@ -0,0 +1,57 @@
+package com.mygdx.astar;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+public class MoveString {
+
+    // Move letters by direction, lower case walks and upper case moves a box
+    private static final String walkLetters = "rlud";
+    private static final String boxLetters = "RLUD";
+
+    /**
+     * Encodes a path as one letter per player move, in the LURD style of Sokoban solutions.
+     * Upper case letters move a box, pushing the box in front of the player if there's one
+     * and pulling the box behind otherwise, which is all a Pukoban move needs to be replayed.
+     *
+     * @param staticMap the static map elements of the level
+     * @param path the path from the goal state back to the starting state
+     * @return the moves from the starting state to the goal state
+     */
+    public static String encode(StaticMap staticMap, ArrayList<MyVertex> path) {
+
+        StringBuilder moves = new StringBuilder(Math.max(0, path.size() - 1));
+
+        for(int i = path.size() - 1; i > 0; i--) {
+
+            MyVertex from = path.get(i);
+            MyVertex to = path.get(i - 1);
+
+            int direction = 0;
+            while(direction < StaticMap.directionCount && staticMap.getNeighbour(direction, from.getPlayerCell()) != to.getPlayerCell()) direction++;
+            if(direction == StaticMap.directionCount) throw new IllegalArgumentException("Path has a step that isn't a single player move");
+
+            boolean movesBox = from.getBoxWords() != to.getBoxWords() && !Arrays.equals(from.getBoxWords(), to.getBoxWords());
+            moves.append(movesBox ? boxLetters.charAt(direction) : walkLetters.charAt(direction));
+        }
+
+        return moves.toString();
+    }
+
+    /**
+     * @param move the move letter
+     * @return the direction the player moves in, -1 if it isn't a move letter
+     */
+    public static int direction(char move) {
+        int direction = walkLetters.indexOf(move);
+        return direction >= 0 ? direction : boxLetters.indexOf(move);
+    }
+
+    /**
+     * @param move the move letter
+     * @return whether the move pushes or pulls a box
+     */
+    public static boolean movesBox(char move) {
+        return boxLetters.indexOf(move) >= 0;
+    }
+}
@@ -3,70 +3,123 @@ package com.mygdx.astar;
 import com.badlogic.gdx.math.Vector2;
 
 import java.util.ArrayList;
-import java.util.HashSet;
+import java.util.Arrays;
 
 public class MyVertex implements Comparable {
 
     public enum FCostMethod {BOTH, G_ONLY, H_ONLY};
+    public enum HeuristicMethod {CLOSEST_BOX, TURNS};
 
-    // Vertex Pukoban state
-    private ArrayList<Vector2> boxes;
-    private Vector2 player;
+    // Vertex Pukoban state, player cell and one bit per box cell
+    private int player;
+    private long[] boxes;
+    private long hash;
 
     // Parent vertex
     private MyVertex parent;
 
-    private AStar astar;
-
     // Heuristic properties
-    private HashSet<Expansion> currentPass;
-    private HashSet<Expansion> nextPass;
-    private HashSet<Vector2> expansionCoords;
-    private HashSet<Expansion> expansionList;
-    private Expansion finalExpansion;
     private int heuristicCost;
     private int gCost;
     private int fCost;
 
+    // Slot in the open list, -1 when not queued
+    private int openIndex = -1;
+
+    // Player cell and direction of the box move that created this vertex, -1 unless player normalised
+    private int boxMove = -1;
+
     /**
      * Constructs a MyVertex object which stores the Pukoban board state by
-     * copying all the box and player coordinates received.
+     * packing all the box and player coordinates received into cell indices.
      *
-     * @param astar the main class instance
+     * @param staticMap the static map elements of the current map
      * @param boxes the the list of box coordinates
      * @param pCoords the player coordinates
      */
-    public MyVertex(AStar astar, ArrayList<Vector2> boxes, Vector2 pCoords) {
-
-        this.astar = astar;
+    public MyVertex(StaticMap staticMap, ArrayList<Vector2> boxes, Vector2 pCoords) {
 
-        this.boxes = new ArrayList<Vector2>();
+        this.boxes = new long[staticMap.getWordCount()];
 
-        // Clone box coords
         for(Vector2 box : boxes) {
-            this.boxes.add(new Vector2(box.x, box.y));
+            int cell = staticMap.toCell(box);
+            this.boxes[cell >>> 6] |= 1L << cell;
         }
 
-        // Clone player coords
-        this.player = pCoords.cpy();
+        this.player = staticMap.toCell(pCoords);
+        this.hash = staticMap.zobristHash(this.boxes, this.player);
+    }
 
-        this.finalExpansion = new Expansion(new Vector2(0, 0), 0);
+    /**
+     * Constructs a MyVertex object from an already packed Pukoban board state.
+     * The box bitset is used as is and must not be modified afterwards.
+     *
+     * @param boxes the bitset with a bit set for each box cell
+     * @param player the player cell
+     * @param hash the Zobrist hash of the board state
+     */
+    public MyVertex(long[] boxes, int player, long hash) {
+        this.boxes = boxes;
+        this.player = player;
+        this.hash = hash;
     }
 
     /**
-     * @return the list of boxes for this Pukoban board state
+     * @return the bitset with a bit set for each box cell
      */
-    public ArrayList<Vector2> getBoxes() {
+    public long[] getBoxWords() {
         return this.boxes;
     }
 
     /**
-     * @return the player coordinates for this Pukoban board state
+     * @return the player cell for this Pukoban board state
      */
-    public Vector2 getPlayer() {
+    public int getPlayerCell() {
         return this.player;
     }
 
+    /**
+     * @return the Zobrist hash of this Pukoban board state
+     */
+    public long getHash() {
+        return this.hash;
+    }
+
+    /**
+     * @param cell the cell index to check
+     * @return whether there's a box on the cell
+     */
+    public boolean hasBox(int cell) {
+        return (this.boxes[cell >>> 6] & (1L << cell)) != 0;
+    }
+
+    /**
+     * @param staticMap the static map elements of the current map
+     * @return the list of boxes for this Pukoban board state
+     */
+    public ArrayList<Vector2> getBoxes(StaticMap staticMap) {
+
+        ArrayList<Vector2> list = new ArrayList<Vector2>();
+
+        for(int i = 0; i < this.boxes.length; i++) {
+            long word = this.boxes[i];
+            while(word != 0) {
+                list.add(staticMap.toCoords((i << 6) + Long.numberOfTrailingZeros(word)));
+                word &= word - 1;
+            }
+        }
+
+        return list;
+    }
+
+    /**
+     * @param staticMap the static map elements of the current map
+     * @return the player coordinates for this Pukoban board state
+     */
+    public Vector2 getPlayer(StaticMap staticMap) {
+        return staticMap.toCoords(this.player);
+    }
+
     /**
      * @return the current heuristic cost
      */
@@ -96,274 +149,95 @@ public class MyVertex implements Comparable {
     }
 
     /**
-     * @param fCost the cost to set
+     * @return the slot of this vertex in the open list, -1 when not queued
      */
-    public void setfCost(int fCost) {
-        this.fCost = fCost;
+    public int getOpenIndex() {
+        return this.openIndex;
     }
 
     /**
-     * @param gCost the cost to set
+     * @return the player cell times the direction count plus the direction of the box move
+     *         that created this vertex, -1 unless the vertex is player normalised
      */
-    public void setgCost(int gCost) {
-        this.gCost = gCost;
+    public int getBoxMove() {
+        return this.boxMove;
     }
 
     /**
-     * @param parent the parent vertex to set
+     * @param fCost the cost to set
      */
-    public void setParent(MyVertex parent) {
-        this.parent = parent;
+    public void setfCost(int fCost) {
+        this.fCost = fCost;
     }
 
     /**
-     * Expands outwards from the current pass expansions and checks for boxes in the path to find
-     * the shortest distance to a box from a specific goal. Can specify a box to find the distance
-     * to it, instead of finding the closest box to a goal.
-     *
-     * @param box the box to use, can be null if only interested in knowing the closest one
-     * @return the distance to the closest box or to the specified box
+     * @param heuristicCost the heuristic cost to set
      */
-    private Expansion doExpansionPasses(Vector2 box) {
-
-        Expansion expansion = new Expansion(new Vector2(0, 0), 0);
-
-        boolean isFinished = false;
-        while(!isFinished) {
-
-            // Cycle through the current expansions and check for a box, if not found add all the possible expansions to the next pass
-            for(Expansion exp : this.currentPass) {
-
-                ArrayList<Vector2> goalExpansion = new ArrayList<Vector2>();
-                Vector2 goal = exp.getCoords();
-
-                // Add expansion coords to already explored if unique
-                this.expansionCoords.add(goal.cpy());
-                if(box != null) this.expansionList.add(exp);
-
-                // If current expansion overlaps a box, stop
-                if(box == null) {
-                    if(this.boxes.contains(goal)) {
-                        expansion = new Expansion(new Vector2(goal.x, goal.y), exp.getDist());
-                        isFinished = true;
-                        break;
-                    }
-                // If current expansion found the specified box, stop
-                } else {
-                    if (box.equals(goal)) {
-                        expansion = new Expansion(new Vector2(goal.x, goal.y), exp.getDist());
-                        isFinished = true;
-                        break;
-                    }
-                }
-
-                Vector2 moveRight = new Vector2(goal.x + 1, goal.y);
-                Vector2 moveLeft = new Vector2(goal.x - 1, goal.y);
-                Vector2 moveUp = new Vector2(goal.x, goal.y + 1);
-                Vector2 moveDown = new Vector2(goal.x, goal.y - 1);
-
-                // Add each direction only if they're viable and not already explored
-                if(!this.astar.collisionCheck(moveRight)) {
-                    if(!this.expansionCoords.contains(moveRight)) goalExpansion.add(moveRight);
-                }
-                if(!this.astar.collisionCheck(moveLeft)) {
-                    if(!this.expansionCoords.contains(moveLeft)) goalExpansion.add(moveLeft);
-                }
-                if(!this.astar.collisionCheck(moveUp)) {
-                    if(!this.expansionCoords.contains(moveUp)) goalExpansion.add(moveUp);
-                }
-                if(!this.astar.collisionCheck(moveDown)) {
-                    if(!this.expansionCoords.contains(moveDown)) goalExpansion.add(moveDown);
-                }
-
-                // Add all possible expansions from this cell to the next pass
-                for (Vector2 vec : goalExpansion) {
-                    this.nextPass.add(new Expansion(vec.cpy(), exp.getDist() + 1));
-                }
-            }
-
-            if(!isFinished) {
-
-                // Copy next pass to current pass and reset next pass
-                this.currentPass = new HashSet<Expansion>();
-                for (Expansion exp : this.nextPass) {
-                    this.currentPass.add(new Expansion(exp.getCoords(), exp.getDist()));
-                }
-                this.nextPass = new HashSet<Expansion>();
-            }
-        }
-
-        return expansion;
+    public void setHeuristicCost(int heuristicCost) {
+        this.heuristicCost = heuristicCost;
     }
 
     /**
-     * Backtracks from a box to a goal by using all the expanded states
-     * from the previous round.
-     *
-     * @param initExp the expansion where the box was found
-     * @return the path from the box to the goal
+     * @param gCost the cost to set
      */
-    private ArrayList<Expansion> backtrackPath(Expansion initExp) {
-
-        ArrayList<Expansion> path = new ArrayList<Expansion>();
-        path.add(initExp);
-
-        int distCheck = initExp.getDist() - 1;
-        if(distCheck < 0) return path;
-        Vector2 adjCoords = new Vector2(initExp.getCoords().x, initExp.getCoords().y);
-
-        boolean isFinished = false;
-
-        while(!isFinished) {
-            for (Expansion exp : this.expansionList) {
-                if(this.isAdj(exp.getCoords(), adjCoords) && exp.getDist() == distCheck) {
-
-                    path.add(exp);
-                    adjCoords = exp.getCoords().cpy();
-
-                    distCheck--;
-                    if(distCheck < 0) {
-                        isFinished = true;
-                    }
-                    break;
-                }
-            }
-        }
-
-        return path;
+    public void setgCost(int gCost) {
+        this.gCost = gCost;
     }
 
     /**
-     * Counts the number of turns needed to go from a specific goal
-     * to a specific box.
-     *
-     * @param path the path from a specific goal to a specific box
-     * @return the number of turns to get from the goal to the box
+     * @param parent the parent vertex to set
      */
-    private int countTurns(ArrayList<Expansion> path) {
-
-        int firstDx, firstDy, secondDx, secondDy;
-        int turnCount = 0;
-
-        for(int i = 0; i < path.size() - 2; i++) {
-
-            // Reset deltas
-            firstDx = 0;
-            firstDy = 0;
-            secondDx = 0;
-            secondDy = 0;
-
-            Vector2 firstCoords = path.get(i).getCoords();
-            Vector2 secondCoords = path.get(i + 1).getCoords();
-            Vector2 thirdCoords = path.get(i + 2).getCoords();
-
-            firstDx = (int) (firstCoords.x - secondCoords.x);
-            firstDy = (int) (firstCoords.y - secondCoords.y);
-
-            secondDx = (int) (secondCoords.x - thirdCoords.x);
-            secondDy = (int) (secondCoords.y - thirdCoords.y);
-
-            if(firstDx != 0 && secondDy != 0) turnCount++;
-            else if(firstDy != 0 && secondDx != 0) turnCount++;
-        }
-
-        return turnCount;
+    public void setParent(MyVertex parent) {
+        this.parent = parent;
     }
 
     /**
-     * Checks if 2 vectors are adjacent using 4 directions.
-     *
-     * @param vec1 the first vector
-     * @param vec2 the second vector
-     * @return whether the vectors are adjacent using 4 directions
+     * @param openIndex the open list slot to set
      */
-    private boolean isAdj(Vector2 vec1, Vector2 vec2) {
-
-        Vector2 rightVec = new Vector2(vec2.x + 1, vec2.y);
-        Vector2 leftVec = new Vector2(vec2.x - 1, vec2.y);
-        Vector2 upVec = new Vector2(vec2.x, vec2.y + 1);
-        Vector2 downVec = new Vector2(vec2.x, vec2.y - 1);
-
-        return (vec1.equals(rightVec) || vec1.equals(leftVec) || vec1.equals(upVec) || vec1.equals(downVec));
+    public void setOpenIndex(int openIndex) {
+        this.openIndex = openIndex;
     }
 
     /**
-     * Computes the heuristic cost for this vertex and stores it.
-     * The heuristic is the sum of the shortest distance to a box for each goal.
+     * @param boxMove the box move that created this vertex to set
      */
-    public void computeHeuristic() {
-
-        int result = 0;
-
-        // For each goal find the closest box
-        for(Vector2 goal : this.astar.getGoals()) {
-
-            // Reset expansion state variables
-            this.expansionCoords = new HashSet<Vector2>();
-            this.currentPass = new HashSet<Expansion>();
-            this.nextPass = new HashSet<Expansion>();
-            this.currentPass.add(new Expansion(goal.cpy(), 0));
-
-            this.doExpansionPasses(null);
-
-            result += this.finalExpansion.getDist();
-            this.finalExpansion = new Expansion(new Vector2(0, 0), 0);
-        }
-
-        if(AStar.debugFlag) DebugPrint.getInstance().printInt("h()", result);
-        this.heuristicCost = result;
+    public void setBoxMove(int boxMove) {
+        this.boxMove = boxMove;
     }
 
     /**
      * Computes the heuristic cost for this vertex and stores it.
-     * The heuristic is the sum of the shortest distance to a box for each goal considering
-     * the number of turns the box has to make to reach the goal. The shortest path
-     * over all the box/goal combinations is the one used.
      *
-     * @param turnValue how much each turn should weigh in the heuristic cost
+     * @param heuristics the distance tables of the current search
+     * @param heuristic the heuristic to use
      */
-    public void computeHeuristicWithTurns(int turnValue) {
-
-        int result = 0;
-
-        // For each goal find the distance to each box
-        for(Vector2 goal : this.astar.getGoals()) {
-
-            int bestResult = -1;
-
-            // Find the distance to each box for the current goal
-            for(Vector2 box : this.boxes) {
+    public void computeHeuristic(Heuristics heuristics, HeuristicMethod heuristic) {
 
-                this.expansionCoords = new HashSet<Vector2>();
-                this.expansionList = new HashSet<Expansion>();
-                this.currentPass = new HashSet<Expansion>();
-                this.nextPass = new HashSet<Expansion>();
-                this.currentPass.add(new Expansion(goal.cpy(), 0));
+        switch(heuristic) {
 
-                // Find the path to this box
-                Expansion exp = this.doExpansionPasses(box);
-                ArrayList<Expansion> path = this.backtrackPath(exp);
+            // Sum of the shortest distance to a box for each goal considering the box turns
+            case TURNS:
+                this.heuristicCost = heuristics.closestBoxSumWithTurns(this);
+                break;
 
-                // Count the number of direction changes
-                int turns = this.countTurns(path);
-
-                // Update best path
-                if(bestResult == -1) bestResult = exp.getDist() + turns * turnValue;
-                else if(exp.getDist() + turns * 2 < bestResult) bestResult = exp.getDist() + turns * turnValue;
-            }
-
-            result += bestResult;
+            // Sum of the shortest distance to a box for each goal
+            default:
+                this.heuristicCost = heuristics.closestBoxSum(this);
+                break;
         }
-
-        if(AStar.debugFlag) DebugPrint.getInstance().printInt("h()", result);
-        this.heuristicCost = result;
     }
 
     /**
+     * @param goalBits the bitset with a bit set for each goal cell
      * @return whether all the boxes coincide with all the goals
      */
-    public boolean checkGoal() {
-        return this.boxes.containsAll(this.astar.getGoals());
+    public boolean checkGoal(long[] goalBits) {
+
+        for(int i = 0; i < goalBits.length; i++) {
+            if((this.boxes[i] & goalBits[i]) != goalBits[i]) return false;
+        }
+
+        return true;
     }
 
     /**
@@ -401,16 +275,8 @@ public class MyVertex implements Comparable {
 
             MyVertex vertex = (MyVertex) obj;
 
-            // Check player coords
-            if(!this.player.equals(vertex.player)) return false;
-
-            // Check same number of boxes
-            if(this.boxes.size() != vertex.boxes.size()) return false;
-
-            // Check that every box coincides
-            if(!this.boxes.containsAll(vertex.boxes)) return false;
-
-            return true;
+            // Check hash and player cell first, then every box word
+            return this.hash == vertex.hash && this.player == vertex.player && Arrays.equals(this.boxes, vertex.boxes);
         }
 
         return false;
@@ -419,14 +285,7 @@ public class MyVertex implements Comparable {
     @Override
     public int hashCode() {
 
-        int result = 0;
-        for(Vector2 box : this.boxes) {
-            result += box.x + box.y;
-        }
-
-        result += this.player.x + this.player.y;
-
-        return result;
+        return (int) (this.hash ^ (this.hash >>> 32));
     }
 
     @Override
@@ -0,0 +1,248 @@
+package com.mygdx.astar;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+public class NodeArena implements NodeStore {
+
+    // Nodes per chunk, chunks are allocated as the arena fills so it never copies node data
+    private static final int chunkBits = 16;
+    private static final int chunkSize = 1 << chunkBits;
+    private static final int chunkMask = chunkSize - 1;
+
+    // Initial index size, doubled whenever it gets half full
+    private static final int initialIndexBits = 16;
+
+    private int wordCount;
+    private int size = 0;
+
+    // Node fields by chunk, the box words take wordCount longs per node
+    private ArrayList<long[]> boxChunks = new ArrayList<long[]>();
+    private ArrayList<long[]> hashChunks = new ArrayList<long[]>();
+    private ArrayList<int[]> playerChunks = new ArrayList<int[]>();
+    private ArrayList<int[]> gCostChunks = new ArrayList<int[]>();
+    private ArrayList<int[]> heuristicChunks = new ArrayList<int[]>();
+    private ArrayList<int[]> parentChunks = new ArrayList<int[]>();
+    private ArrayList<int[]> boxMoveChunks = new ArrayList<int[]>();
+    private ArrayList<int[]> openCostChunks = new ArrayList<int[]>();
+
+    // Open addressing index from state hash to node, holding node + 1 so 0 is empty
+    private int[] index = new int[1 << initialIndexBits];
+    private int indexMask = this.index.length - 1;
+
+    /**
+     * Constructs a NodeArena object which stores search nodes as indices into chunked
+     * primitive arrays instead of vertex objects, so the garbage collector has a few large
+     * arrays to trace however many nodes there are. Each node takes 8 bytes per box word
+     * plus 32, and 8 to 16 more for the index.
+     *
+     * @param staticMap the static map elements of the level the nodes belong to
+     */
+    public NodeArena(StaticMap staticMap) {
+        this.wordCount = staticMap.getWordCount();
+    }
+
+    @Override
+    public int add(long[] boxes, int player, long hash) {
+
+        if((this.size & chunkMask) == 0) this.addChunk();
+
+        int node = this.size++;
+        int chunk = node >>> chunkBits;
+        int offset = node & chunkMask;
+
+        System.arraycopy(boxes, 0, this.boxChunks.get(chunk), offset * this.wordCount, this.wordCount);
+        this.hashChunks.get(chunk)[offset] = hash;
+        this.playerChunks.get(chunk)[offset] = player;
+
+        // Keep the index at most half full so probes stay short
+        if(this.size * 2 > this.index.length) this.growIndex();
+        this.indexNode(node, hash);
+
+        return node;
+    }
+
+    @Override
+    public int find(long[] boxes, int player, long hash) {
+
+        for(int slot = this.homeSlot(hash); this.index[slot] != 0; slot = (slot + 1) & this.indexMask) {
+            int node = this.index[slot] - 1;
+            if(this.getHash(node) == hash && this.getPlayerCell(node) == player && this.sameBoxes(node, boxes)) return node;
+        }
+
+        return -1;
+    }
+
+    @Override
+    public MyVertex toVertex(int node) {
+
+        long[] boxes = new long[this.wordCount];
+        System.arraycopy(this.boxChunks.get(node >>> chunkBits), (node & chunkMask) * this.wordCount, boxes, 0, this.wordCount);
+
+        MyVertex vert = new MyVertex(boxes, this.getPlayerCell(node), this.getHash(node));
+        vert.setgCost(this.getgCost(node));
+        vert.setHeuristicCost(this.getHeuristicCost(node));
+        vert.setBoxMove(this.getBoxMove(node));
+
+        return vert;
+    }
+
+    @Override
+    public boolean checkGoal(int node, long[] goalBits) {
+
+        long[] chunk = this.boxChunks.get(node >>> chunkBits);
+        int base = (node & chunkMask) * this.wordCount;
+
+        for(int i = 0; i < goalBits.length; i++) {
+            if((chunk[base + i] & goalBits[i]) != goalBits[i]) return false;
+        }
+
+        return true;
+    }
+
+    @Override
+    public long getHash(int node) {
+        return this.hashChunks.get(node >>> chunkBits)[node & chunkMask];
+    }
+
+    @Override
+    public int getPlayerCell(int node) {
+        return this.playerChunks.get(node >>> chunkBits)[node & chunkMask];
+    }
+
+    @Override
+    public int getgCost(int node) {
+        return this.gCostChunks.get(node >>> chunkBits)[node & chunkMask];
+    }
+
+    @Override
+    public void setgCost(int node, int gCost) {
+        this.gCostChunks.get(node >>> chunkBits)[node & chunkMask] = gCost;
+    }
+
+    @Override
+    public int getHeuristicCost(int node) {
+        return this.heuristicChunks.get(node >>> chunkBits)[node & chunkMask];
+    }
+
+    @Override
+    public void setHeuristicCost(int node, int heuristicCost) {
+        this.heuristicChunks.get(node >>> chunkBits)[node & chunkMask] = heuristicCost;
+    }
+
+    @Override
+    public int getParent(int node) {
+        return this.parentChunks.get(node >>> chunkBits)[node & chunkMask];
+    }
+
+    @Override
+    public void setParent(int node, int parent) {
+        this.parentChunks.get(node >>> chunkBits)[node & chunkMask] = parent;
+    }
+
+    @Override
+    public int getBoxMove(int node) {
+        return this.boxMoveChunks.get(node >>> chunkBits)[node & chunkMask];
+    }
+
+    @Override
+    public void setBoxMove(int node, int boxMove) {
+        this.boxMoveChunks.get(node >>> chunkBits)[node & chunkMask] = boxMove;
+    }
+
+    @Override
+    public int getOpenCost(int node) {
+        return this.openCostChunks.get(node >>> chunkBits)[node & chunkMask];
+    }
+
+    @Override
+    public void setOpenCost(int node, int openCost) {
+        this.openCostChunks.get(node >>> chunkBits)[node & chunkMask] = openCost;
+    }
+
+    @Override
+    public int size() {
+        return this.size;
+    }
+
+    @Override
+    public long getAllocatedBytes() {
+        return (long) this.boxChunks.size() * chunkSize * (this.wordCount * 8 + 32) + this.index.length * 4L;
+    }
+
+    @Override
+    public void close() {
+        // Everything is on the heap
+    }
+
+    /**
+     * Allocates the arrays for another chunk of nodes.
+     */
+    private void addChunk() {
+
+        this.boxChunks.add(new long[chunkSize * this.wordCount]);
+        this.hashChunks.add(new long[chunkSize]);
+        this.playerChunks.add(new int[chunkSize]);
+        this.gCostChunks.add(new int[chunkSize]);
+        this.heuristicChunks.add(new int[chunkSize]);
+
+        // Nodes start with no parent, no box move and not queued
+        int[] parents = new int[chunkSize];
+        int[] boxMoves = new int[chunkSize];
+        int[] openCosts = new int[chunkSize];
+        Arrays.fill(parents, -1);
+        Arrays.fill(boxMoves, -1);
+        Arrays.fill(openCosts, -1);
+        this.parentChunks.add(parents);
+        this.boxMoveChunks.add(boxMoves);
+        this.openCostChunks.add(openCosts);
+    }
+
+    /**
+     * Doubles the index and indexes every node again from its stored hash.
+     */
+    private void growIndex() {
+
+        this.index = new int[this.index.length * 2];
+        this.indexMask = this.index.length - 1;
+
+        for(int node = 0; node < this.size - 1; node++) this.indexNode(node, this.getHash(node));
+    }
+
+    /**
+     * @param node the index of the node
+     * @param hash the Zobrist hash of the node state
+     */
+    private void indexNode(int node, long hash) {
+
+        int slot = this.homeSlot(hash);
+        while(this.index[slot] != 0) slot = (slot + 1) & this.indexMask;
+
+        this.index[slot] = node + 1;
+    }
+
+    /**
+     * @param hash the Zobrist hash of a board state
+     * @return the index slot probing for the state starts at
+     */
+    private int homeSlot(long hash) {
+        return (int) (hash ^ (hash >>> 32)) & this.indexMask;
+    }
+
+    /**
+     * @param node the index of the node
+     * @param boxes the bitset with a bit set for each box cell
+     * @return whether the node has the same boxes
+     */
+    private boolean sameBoxes(int node, long[] boxes) {
+
+        long[] chunk = this.boxChunks.get(node >>> chunkBits);
+        int base = (node & chunkMask) * this.wordCount;
+
+        for(int i = 0; i < this.wordCount; i++) {
+            if(chunk[base + i] != boxes[i]) return false;
+        }
+
+        return true;
+    }
+}
@@ -0,0 +1,127 @@
+package com.mygdx.astar;
+
+public interface NodeStore {
+
+    /**
+     * Adds a node for the board state, which must not be in the store already. The node
+     * starts with no parent and no box move, costs of 0 and not queued.
+     *
+     * @param boxes the bitset with a bit set for each box cell, copied into the store
+     * @param player the player cell
+     * @param hash the Zobrist hash of the board state
+     * @return the index of the new node
+     */
+    int add(long[] boxes, int player, long hash);
+
+    /**
+     * Finds the node holding the board state.
+     *
+     * @param boxes the bitset with a bit set for each box cell
+     * @param player the player cell
+     * @param hash the Zobrist hash of the board state
+     * @return the index of the node, -1 if the state isn't in the store
+     */
+    int find(long[] boxes, int player, long hash);
+
+    /**
+     * Copies a node into a new vertex, with its costs and box move but no parent.
+     *
+     * @param node the index of the node
+     * @return the vertex holding the node state
+     */
+    MyVertex toVertex(int node);
+
+    /**
+     * @param node the index of the node
+     * @param goalBits the bitset with a bit set for each goal cell
+     * @return whether all the boxes of the node coincide with all the goals
+     */
+    boolean checkGoal(int node, long[] goalBits);
+
+    /**
+     * @param node the index of the node
+     * @return the Zobrist hash of the node state
+     */
+    long getHash(int node);
+
+    /**
+     * @param node the index of the node
+     * @return the player cell of the node state
+     */
+    int getPlayerCell(int node);
+
+    /**
+     * @param node the index of the node
+     * @return the g() cost of the node
+     */
+    int getgCost(int node);
+
+    /**
+     * @param node the index of the node
+     * @param gCost the g() cost of the node
+     */
+    void setgCost(int node, int gCost);
+
+    /**
+     * @param node the index of the node
+     * @return the h() cost of the node
+     */
+    int getHeuristicCost(int node);
+
+    /**
+     * @param node the index of the node
+     * @param heuristicCost the h() cost of the node
+     */
+    void setHeuristicCost(int node, int heuristicCost);
+
+    /**
+     * @param node the index of the node
+     * @return the index of the node it was reached from, -1 for none
+     */
+    int getParent(int node);
+
+    /**
+     * @param node the index of the node
+     * @param parent the index of the node it was reached from, -1 for none
+     */
+    void setParent(int node, int parent);
+
+    /**
+     * @param node the index of the node
+     * @return the box move the node was reached with, -1 unless player normalised
+     */
+    int getBoxMove(int node);
+
+    /**
+     * @param node the index of the node
+     * @param boxMove the box move the node was reached with
+     */
+    void setBoxMove(int node, int boxMove);
+
+    /**
+     * @param node the index of the node
+     * @return the f() cost the node is queued with, -1 when not queued
+     */
+    int getOpenCost(int node);
+
+    /**
+     * @param node the index of the node
+     * @param openCost the f() cost the node is queued with, -1 when not queued
+     */
+    void setOpenCost(int node, int openCost);
+
+    /**
+     * @return the number of nodes in the store
+     */
+    int size();
+
+    /**
+     * @return the bytes taken by the node chunks and the index, on the heap or on disk
+     */
+    long getAllocatedBytes();
+
+    /**
+     * Releases whatever the store holds outside the heap. The store can't be used afterwards.
+     */
+    void close();
+}
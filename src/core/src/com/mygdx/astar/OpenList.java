@@ -0,0 +1,54 @@
+package com.mygdx.astar;
+
+public interface OpenList {
+
+    /**
+     * Adds a vertex to the open list. The vertex must not be queued already.
+     *
+     * @param vert the vertex to add
+     */
+    void add(MyVertex vert);
+
+    /**
+     * @return the next vertex to expand without removing it, null if empty
+     */
+    MyVertex peek();
+
+    /**
+     * Removes and returns the next vertex to expand.
+     *
+     * @return the next vertex to expand, null if empty
+     */
+    MyVertex poll();
+
+    /**
+     * Finds the queued vertex holding the same Pukoban state as the given one.
+     *
+     * @param vert the vertex to look for
+     * @return the queued vertex for this state, null if not in the open list
+     */
+    MyVertex get(MyVertex vert);
+
+    /**
+     * @param vert the vertex to look for
+     * @return whether a vertex with the same Pukoban state is in the open list
+     */
+    boolean contains(MyVertex vert);
+
+    /**
+     * Restores the open list order after the f() cost of a queued vertex was lowered.
+     *
+     * @param vert the queued vertex whose cost decreased
+     */
+    void decreaseKey(MyVertex vert);
+
+    /**
+     * @return the number of vertices in the open list
+     */
+    int size();
+
+    /**
+     * @return whether the open list is empty
+     */
+    boolean isEmpty();
+}
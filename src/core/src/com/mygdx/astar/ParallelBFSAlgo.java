@@ -0,0 +1,251 @@
+package com.mygdx.astar;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ParallelBFSAlgo extends AbstractSearchEngine {
+
+    // Tasks per thread for each layer, so threads finishing early can pick up more of it
+    private static final int tasksPerThread = 4;
+
+    // Layers smaller than this are expanded in a single task
+    private static final int minTaskSize = 64;
+
+    private int threadCount;
+
+    // Every state reached so far, packed, the thread inserting a state first sets its parent
+    private StateTable visited;
+
+    // Move generation keeps scratch arrays, so each pool thread has its own
+    private ThreadLocal<MoveGenerator> moveGenerators = new ThreadLocal<MoveGenerator>() {
+        @Override
+        protected MoveGenerator initialValue() {
+            return new MoveGenerator(staticMap);
+        }
+    };
+
+    // Slot of the goal reached by the last layer, any of them since they all have the same cost
+    private AtomicInteger goal = new AtomicInteger(-1);
+
+    // Expansions of every task added up as they finish, the progress seen by other threads
+    private AtomicInteger sharedExpanded = new AtomicInteger();
+
+    /**
+     * Constructs a ParallelBFSAlgo object responsible for running a breadth-first search on
+     * the solver level, one depth layer at a time with each layer split between a pool of
+     * threads. Every move costs 1 so it finds the same cost solutions as uniform cost search.
+     *
+     * @param solver the solver holding the level and its precomputed tables
+     */
+    public ParallelBFSAlgo(Solver solver) {
+        super(solver);
+        this.threadCount = Math.max(1, solver.getThreadCount());
+        this.visited = new StateTable(this.staticMap, solver.getStateTableBits());
+    }
+
+    @Override
+    public ArrayList<MyVertex> runAlgorithm(MyVertex.FCostMethod method, MyVertex.HeuristicMethod heuristic, int turnCost) {
+
+        this.startRun(method, heuristic, turnCost);
+
+        MyVertex rootVertex = this.createRoot();
+
+        int rootSlot = this.visited.insert(rootVertex.getBoxWords(), rootVertex.getPlayerCell(), rootVertex.getHash(), -1, 0, -1);
+        if(rootVertex.checkGoal(this.staticMap.getGoalBits())) this.goal.set(rootSlot);
+
+        ExecutorService pool = Executors.newFixedThreadPool(this.threadCount, new ThreadFactory() {
+
+            private int created = 0;
+
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "Solver-" + this.created++);
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+
+        int[] frontier = new int[] {rootSlot};
+        int depth = 0;
+        boolean full = false;
+
+        try {
+
+            // Expand whole layers until one reaches the goal, the first goal is at the lowest depth
+            while(this.goal.get() < 0 && frontier.length > 0 && !this.cancelled) {
+
+                frontier = this.expandLayer(pool, frontier);
+                depth++;
+
+                this.progressBestCost = depth;
+                this.metrics.updateOpenPeak(frontier.length);
+                if(AStar.debugFlag) DebugPrint.getInstance().printInt("Depth", depth);
+            }
+
+        } catch(IllegalStateException e) {
+
+            // The table is out of slots, give up like running out of memory
+            if(AStar.debugFlag) System.out.println(e.getMessage());
+            full = true;
+
+        } finally {
+            pool.shutdownNow();
+        }
+
+        this.metrics.setClosedSize(this.visited.size());
+        if(AStar.debugFlag) DebugPrint.getInstance().printTableStats("Visited states", this.visited);
+
+        if(this.goal.get() < 0 || this.cancelled || full) {
+            this.finishMetrics(-1);
+            return new ArrayList<MyVertex>();
+        }
+
+        ArrayList<MyVertex> path = this.finishPath(this.backtrack(this.goal.get()));
+        this.finishMetrics(path.size() - 1);
+
+        return path;
+    }
+
+    /**
+     * Splits the layer into tasks, runs them on the pool and joins the vertices they reach
+     * into the next layer. Each task counts into its own metrics, added up once it's done.
+     *
+     * @param pool the threads to expand the layer with
+     * @param frontier the slots of the states in the current layer
+     * @return the slots of the states first reached by this layer
+     */
+    private int[] expandLayer(ExecutorService pool, int[] frontier) {
+
+        int taskCount = Math.max(1, Math.min(this.threadCount * tasksPerThread, frontier.length / minTaskSize));
+        int taskSize = (frontier.length + taskCount - 1) / taskCount;
+
+        ArrayList<LayerTask> tasks = new ArrayList<LayerTask>();
+        for(int start = 0; start < frontier.length; start += taskSize) {
+            tasks.add(new LayerTask(frontier, start, Math.min(start + taskSize, frontier.length)));
+        }
+
+        ArrayList<int[]> reached = new ArrayList<int[]>();
+        int reachedCount = 0;
+
+        try {
+            for(Future<int[]> future : pool.invokeAll(tasks)) {
+                reached.add(future.get());
+                reachedCount += reached.get(reached.size() - 1).length;
+            }
+        } catch(InterruptedException e) {
+            this.cancel();
+        } catch(ExecutionException e) {
+
+            // Running out of memory or table slots is handled further up
+            if(e.getCause() instanceof Error) throw (Error) e.getCause();
+            if(e.getCause() instanceof RuntimeException) throw (RuntimeException) e.getCause();
+            throw new RuntimeException(e.getCause());
+        } finally {
+            for(LayerTask task : tasks) this.metrics.merge(task.metrics);
+        }
+
+        int[] nextFrontier = new int[reachedCount];
+        int offset = 0;
+        for(int[] slots : reached) {
+            System.arraycopy(slots, 0, nextFrontier, offset, slots.length);
+            offset += slots.length;
+        }
+
+        return nextFrontier;
+    }
+
+    /**
+     * Finds the path to the goal state by backtracking to the initial state.
+     *
+     * @param goalSlot the slot of the solution map state
+     * @return the list of map states to get from the start to the finish of the Pukoban puzzle
+     */
+    private ArrayList<MyVertex> backtrack(int goalSlot) {
+
+        ArrayList<MyVertex> verts = new ArrayList<MyVertex>();
+
+        for(int slot = goalSlot; slot >= 0; slot = this.visited.getParent(slot)) {
+            MyVertex vert = this.visited.toVertex(slot);
+            if(AStar.debugFlag) DebugPrint.getInstance().printVertex(this.staticMap, vert);
+            verts.add(vert);
+        }
+        Collections.reverse(verts);
+
+        return verts;
+    }
+
+    @Override
+    public int getProgressExpanded() {
+        return this.sharedExpanded.get();
+    }
+
+    private class LayerTask implements Callable<int[]> {
+
+        private int[] frontier;
+        private int start;
+        private int end;
+        private SearchMetrics metrics = new SearchMetrics(solver.isTimingPhases());
+
+        /**
+         * Constructs a LayerTask object which expands part of a layer.
+         *
+         * @param frontier the slots of the states in the layer
+         * @param start the first index of the part to expand
+         * @param end the index after the last one of the part to expand
+         */
+        LayerTask(int[] frontier, int start, int end) {
+            this.frontier = frontier;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        public int[] call() {
+
+            MoveGenerator moveGenerator = moveGenerators.get();
+            int[] reached = new int[64];
+            int reachedCount = 0;
+
+            for(int i = this.start; i < this.end; i++) {
+
+                if(cancelled) break;
+
+                this.metrics.startLap();
+                int slot = this.frontier[i];
+                MyVertex vert = visited.toVertex(slot);
+                this.metrics.countExpanded();
+
+                ArrayList<MyVertex> nextVerts = normalizePlayer ? moveGenerator.calcBoxMoves(vert) : moveGenerator.calcPossibleMoves(vert);
+                this.metrics.lapSuccessors();
+                this.metrics.countGenerated(nextVerts.size());
+
+                for(MyVertex nextVert : nextVerts) {
+
+                    int nextSlot = visited.insert(nextVert.getBoxWords(), nextVert.getPlayerCell(), nextVert.getHash(),
+                            slot, vert.getgCost() + 1, nextVert.getBoxMove());
+                    this.metrics.lapClosedList();
+                    if(nextSlot < 0) {
+                        this.metrics.countDuplicate();
+                        continue;
+                    }
+
+                    if(reachedCount == reached.length) reached = Arrays.copyOf(reached, reachedCount * 2);
+                    reached[reachedCount++] = nextSlot;
+                    if(nextVert.checkGoal(staticMap.getGoalBits())) goal.compareAndSet(-1, nextSlot);
+                }
+            }
+
+            sharedExpanded.addAndGet(this.metrics.getExpandedCount());
+
+            return Arrays.copyOf(reached, reachedCount);
+        }
+    }
+}
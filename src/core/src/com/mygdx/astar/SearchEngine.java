@@ -0,0 +1,52 @@
+package com.mygdx.astar;
+
+import java.util.ArrayList;
+
+public interface SearchEngine {
+
+    /**
+     * Runs the search using the solver level. Returns the path taken to reach the solution.
+     *
+     * @param method the method to use for calculating f()
+     * @param heuristic the heuristic to use for calculating h()
+     * @param turnCost the cost of boxes changing direction
+     * @return the path from the goal state back to the starting state, empty if none was found
+     */
+    ArrayList<MyVertex> runAlgorithm(MyVertex.FCostMethod method, MyVertex.HeuristicMethod heuristic, int turnCost);
+
+    /**
+     * Asks the search to stop, it returns with no solution shortly after.
+     * Safe to call from any thread.
+     */
+    void cancel();
+
+    /**
+     * @return whether the search was asked to stop
+     */
+    boolean isCancelled();
+
+    /**
+     * @return the number of vertices expanded as of the last progress update, safe to read from any thread
+     */
+    int getProgressExpanded();
+
+    /**
+     * @return the current best f() cost bound as of the last progress update, safe to read from any thread
+     */
+    int getProgressBestCost();
+
+    /**
+     * @return the moves of the best solution found while the search keeps improving it, null if there's none yet or the engine only has one at the end, safe to read from any thread
+     */
+    String getBestMoves();
+
+    /**
+     * @return how many times longer than optimal the best solution so far can be at most, safe to read from any thread
+     */
+    float getBestBound();
+
+    /**
+     * @return the counters and phase timings filled in by the search
+     */
+    SearchMetrics getMetrics();
+}
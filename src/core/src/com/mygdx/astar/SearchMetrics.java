@@ -0,0 +1,438 @@
+package com.mygdx.astar;
+
+import java.util.Properties;
+
+public class SearchMetrics {
+
+    // Column order shared by the CSV header and rows
+    private static final String csvHeader = "level,method,heuristic,turnCost,solved,solutionLength,expanded,generated,duplicates,reopened,"
+            + "openPeak,closedSize,totalNanos,successorNanos,heuristicNanos,openListNanos,closedListNanos,bound,truncatedLayers,"
+            + "cacheHits,cacheMisses,stored";
+
+    // Run description
+    private String levelName = "";
+    private MyVertex.FCostMethod method;
+    private MyVertex.HeuristicMethod heuristic;
+    private int turnCost;
+
+    // Counters
+    private int solutionLength = -1;
+    private int expandedCount = 0;
+    private int generatedCount = 0;
+    private int duplicateCount = 0;
+    private int reopenedCount = 0;
+    private int openPeak = 0;
+    private int closedSize = 0;
+    private int truncatedCount = 0;
+    private int cacheHitCount = 0;
+    private int cacheMissCount = 0;
+
+    // Whether the solution came from the solution store, the counters are then those of the search that stored it
+    private boolean fromStore = false;
+
+    // How many times longer than optimal the solution can be, 0 when the search doesn't prove one
+    private float suboptimalityBound = 0;
+
+    // Phase timers in nanoseconds
+    private long totalTime = 0;
+    private long successorTime = 0;
+    private long heuristicTime = 0;
+    private long openListTime = 0;
+    private long closedListTime = 0;
+    private long lapStart = 0;
+
+    // Reading the clock several times per expansion is noticeable, so phases are timed on request
+    private boolean timePhases;
+
+    /**
+     * Constructs a SearchMetrics object which the search fills in with its counters, peak sizes and timings.
+     *
+     * @param timePhases whether to time the search phases on top of the whole search
+     */
+    public SearchMetrics(boolean timePhases) {
+        this.timePhases = timePhases;
+    }
+
+    /**
+     * Sets what the search was run on and with which settings, to label exported runs.
+     *
+     * @param levelName the level name
+     * @param method the method used for calculating f()
+     * @param heuristic the heuristic used for calculating h()
+     * @param turnCost the cost of boxes changing direction
+     */
+    public void setRun(String levelName, MyVertex.FCostMethod method, MyVertex.HeuristicMethod heuristic, int turnCost) {
+        this.levelName = levelName;
+        this.method = method;
+        this.heuristic = heuristic;
+        this.turnCost = turnCost;
+    }
+
+    /**
+     * Counts a vertex taken off the open list and expanded.
+     */
+    public void countExpanded() {
+        this.expandedCount++;
+    }
+
+    /**
+     * @param count the number of successors generated by an expansion
+     */
+    public void countGenerated(int count) {
+        this.generatedCount += count;
+    }
+
+    /**
+     * Counts a successor dropped because it was already expanded.
+     */
+    public void countDuplicate() {
+        this.duplicateCount++;
+    }
+
+    /**
+     * Counts a queued vertex whose cost decreased through a new parent.
+     */
+    public void countReopened() {
+        this.reopenedCount++;
+    }
+
+    /**
+     * Counts a layer that had more states than the search keeps, some of them dropped.
+     */
+    public void countTruncated() {
+        this.truncatedCount++;
+    }
+
+    /**
+     * Counts a heuristic cost found in the heuristic cache.
+     */
+    public void countCacheHit() {
+        this.cacheHitCount++;
+    }
+
+    /**
+     * Counts a heuristic cost not found in the heuristic cache and computed.
+     */
+    public void countCacheMiss() {
+        this.cacheMissCount++;
+    }
+
+    /**
+     * @param size the current open list size
+     */
+    public void updateOpenPeak(int size) {
+        if(size > this.openPeak) this.openPeak = size;
+    }
+
+    /**
+     * @param closedSize the closed list size when the search ended
+     */
+    public void setClosedSize(int closedSize) {
+        this.closedSize = closedSize;
+    }
+
+    /**
+     * @param solutionLength the number of moves in the solution, -1 if none was found
+     */
+    public void setSolutionLength(int solutionLength) {
+        this.solutionLength = solutionLength;
+    }
+
+    /**
+     * @param suboptimalityBound how many times longer than optimal the solution can be at most
+     */
+    public void setSuboptimalityBound(float suboptimalityBound) {
+        this.suboptimalityBound = suboptimalityBound;
+    }
+
+    /**
+     * @param nanos the whole search time
+     */
+    public void setTotalTime(long nanos) {
+        this.totalTime = nanos;
+    }
+
+    /**
+     * Starts timing a phase. Each lap charges the time since the previous lap, or since
+     * this call, to its phase so back to back phases only read the clock once each.
+     */
+    public void startLap() {
+        if(!this.timePhases) return;
+        this.lapStart = System.nanoTime();
+    }
+
+    /**
+     * Charges the time since the last lap to successor generation.
+     */
+    public void lapSuccessors() {
+        if(!this.timePhases) return;
+        long now = System.nanoTime();
+        this.successorTime += now - this.lapStart;
+        this.lapStart = now;
+    }
+
+    /**
+     * Charges the time since the last lap to heuristic computation.
+     */
+    public void lapHeuristic() {
+        if(!this.timePhases) return;
+        long now = System.nanoTime();
+        this.heuristicTime += now - this.lapStart;
+        this.lapStart = now;
+    }
+
+    /**
+     * Charges the time since the last lap to open list maintenance.
+     */
+    public void lapOpenList() {
+        if(!this.timePhases) return;
+        long now = System.nanoTime();
+        this.openListTime += now - this.lapStart;
+        this.lapStart = now;
+    }
+
+    /**
+     * Charges the time since the last lap to closed list maintenance.
+     */
+    public void lapClosedList() {
+        if(!this.timePhases) return;
+        long now = System.nanoTime();
+        this.closedListTime += now - this.lapStart;
+        this.lapStart = now;
+    }
+
+    /**
+     * Adds the counters and phase timings of another search to these, used to sum up the
+     * workers of a parallel search. Peak and final sizes are summed too, as each worker
+     * keeps its own lists.
+     *
+     * @param other the metrics to add
+     */
+    public void merge(SearchMetrics other) {
+        this.expandedCount += other.expandedCount;
+        this.generatedCount += other.generatedCount;
+        this.duplicateCount += other.duplicateCount;
+        this.reopenedCount += other.reopenedCount;
+        this.truncatedCount += other.truncatedCount;
+        this.cacheHitCount += other.cacheHitCount;
+        this.cacheMissCount += other.cacheMissCount;
+        this.openPeak += other.openPeak;
+        this.closedSize += other.closedSize;
+        this.successorTime += other.successorTime;
+        this.heuristicTime += other.heuristicTime;
+        this.openListTime += other.openListTime;
+        this.closedListTime += other.closedListTime;
+    }
+
+    /**
+     * Writes the counters into properties, to be stored with a solution. Timings are left out,
+     * a stored solution takes as long as looking it up.
+     *
+     * @param props the properties to write into
+     */
+    public void save(Properties props) {
+        props.setProperty("solutionLength", String.valueOf(this.solutionLength));
+        props.setProperty("expanded", String.valueOf(this.expandedCount));
+        props.setProperty("generated", String.valueOf(this.generatedCount));
+        props.setProperty("duplicates", String.valueOf(this.duplicateCount));
+        props.setProperty("reopened", String.valueOf(this.reopenedCount));
+        props.setProperty("openPeak", String.valueOf(this.openPeak));
+        props.setProperty("closedSize", String.valueOf(this.closedSize));
+        props.setProperty("truncatedLayers", String.valueOf(this.truncatedCount));
+        props.setProperty("cacheHits", String.valueOf(this.cacheHitCount));
+        props.setProperty("cacheMisses", String.valueOf(this.cacheMissCount));
+        props.setProperty("bound", String.valueOf(this.suboptimalityBound));
+    }
+
+    /**
+     * Reads back the counters written by save and marks these metrics as coming from the
+     * solution store. The whole search time is left for the caller to set to the lookup time.
+     *
+     * @param props the properties to read from
+     * @throws NumberFormatException if a counter is missing or isn't a number
+     */
+    public void load(Properties props) {
+        this.solutionLength = Integer.parseInt(props.getProperty("solutionLength"));
+        this.expandedCount = Integer.parseInt(props.getProperty("expanded"));
+        this.generatedCount = Integer.parseInt(props.getProperty("generated"));
+        this.duplicateCount = Integer.parseInt(props.getProperty("duplicates"));
+        this.reopenedCount = Integer.parseInt(props.getProperty("reopened"));
+        this.openPeak = Integer.parseInt(props.getProperty("openPeak"));
+        this.closedSize = Integer.parseInt(props.getProperty("closedSize"));
+        this.truncatedCount = Integer.parseInt(props.getProperty("truncatedLayers"));
+        this.cacheHitCount = Integer.parseInt(props.getProperty("cacheHits"));
+        this.cacheMissCount = Integer.parseInt(props.getProperty("cacheMisses"));
+        this.suboptimalityBound = Float.parseFloat(props.getProperty("bound"));
+        this.fromStore = true;
+    }
+
+    /**
+     * @return the number of moves in the solution, -1 if none was found
+     */
+    public int getSolutionLength() {
+        return this.solutionLength;
+    }
+
+    /**
+     * @return the number of vertices expanded
+     */
+    public int getExpandedCount() {
+        return this.expandedCount;
+    }
+
+    /**
+     * @return the number of successors generated
+     */
+    public int getGeneratedCount() {
+        return this.generatedCount;
+    }
+
+    /**
+     * @return the number of successors dropped because they were already expanded
+     */
+    public int getDuplicateCount() {
+        return this.duplicateCount;
+    }
+
+    /**
+     * @return the number of queued vertices whose cost decreased
+     */
+    public int getReopenedCount() {
+        return this.reopenedCount;
+    }
+
+    /**
+     * @return the number of layers that had states dropped
+     */
+    public int getTruncatedCount() {
+        return this.truncatedCount;
+    }
+
+    /**
+     * @return the number of heuristic costs found in the heuristic cache
+     */
+    public int getCacheHitCount() {
+        return this.cacheHitCount;
+    }
+
+    /**
+     * @return the number of heuristic costs looked up in the heuristic cache and computed
+     */
+    public int getCacheMissCount() {
+        return this.cacheMissCount;
+    }
+
+    /**
+     * @return the largest open list size reached
+     */
+    public int getOpenPeak() {
+        return this.openPeak;
+    }
+
+    /**
+     * @return the closed list size when the search ended
+     */
+    public int getClosedSize() {
+        return this.closedSize;
+    }
+
+    /**
+     * @return how many times longer than optimal the solution can be at most, 0 when the search doesn't prove one
+     */
+    public float getSuboptimalityBound() {
+        return this.suboptimalityBound;
+    }
+
+    /**
+     * @return whether the solution came from the solution store instead of a search
+     */
+    public boolean isFromStore() {
+        return this.fromStore;
+    }
+
+    /**
+     * @return the whole search time in nanoseconds
+     */
+    public long getTotalTime() {
+        return this.totalTime;
+    }
+
+    /**
+     * @return whether the search phases were timed
+     */
+    public boolean isTimingPhases() {
+        return this.timePhases;
+    }
+
+    /**
+     * @return the time spent generating successors in nanoseconds
+     */
+    public long getSuccessorTime() {
+        return this.successorTime;
+    }
+
+    /**
+     * @return the time spent computing heuristics in nanoseconds
+     */
+    public long getHeuristicTime() {
+        return this.heuristicTime;
+    }
+
+    /**
+     * @return the time spent on the open list in nanoseconds
+     */
+    public long getOpenListTime() {
+        return this.openListTime;
+    }
+
+    /**
+     * @return the time spent on the closed list in nanoseconds
+     */
+    public long getClosedListTime() {
+        return this.closedListTime;
+    }
+
+    /**
+     * @return the CSV header matching the columns of toCsv
+     */
+    public static String csvHeader() {
+        return csvHeader;
+    }
+
+    /**
+     * @return the metrics as a CSV row, in the column order of csvHeader
+     */
+    public String toCsv() {
+
+        String name = this.levelName;
+        if(name.indexOf(',') >= 0 || name.indexOf('"') >= 0) name = "\"" + name.replace("\"", "\"\"") + "\"";
+
+        return name + "," + this.method + "," + this.heuristic + "," + this.turnCost + "," + (this.solutionLength >= 0) + ","
+                + this.solutionLength + "," + this.expandedCount + "," + this.generatedCount + "," + this.duplicateCount + ","
+                + this.reopenedCount + "," + this.openPeak + "," + this.closedSize + "," + this.totalTime + ","
+                + this.successorTime + "," + this.heuristicTime + "," + this.openListTime + "," + this.closedListTime + ","
+                + (this.suboptimalityBound > 0 ? String.valueOf(this.suboptimalityBound) : "") + "," + this.truncatedCount
+                + "," + this.cacheHitCount + "," + this.cacheMissCount + "," + this.fromStore;
+    }
+
+    /**
+     * @return the metrics as a single line JSON object
+     */
+    public String toJson() {
+
+        String name = this.levelName.replace("\\", "\\\\").replace("\"", "\\\"");
+
+        return "{\"level\":\"" + name + "\",\"method\":\"" + this.method + "\",\"heuristic\":\"" + this.heuristic + "\""
+                + ",\"turnCost\":" + this.turnCost + ",\"solved\":" + (this.solutionLength >= 0)
+                + ",\"solutionLength\":" + this.solutionLength + ",\"expanded\":" + this.expandedCount
+                + ",\"generated\":" + this.generatedCount + ",\"duplicates\":" + this.duplicateCount
+                + ",\"reopened\":" + this.reopenedCount + ",\"openPeak\":" + this.openPeak + ",\"closedSize\":" + this.closedSize
+                + ",\"nanos\":{\"total\":" + this.totalTime + ",\"successors\":" + this.successorTime
+                + ",\"heuristic\":" + this.heuristicTime + ",\"openList\":" + this.openListTime
+                + ",\"closedList\":" + this.closedListTime + "}"
+                + ",\"bound\":" + (this.suboptimalityBound > 0 ? String.valueOf(this.suboptimalityBound) : "null")
+                + ",\"truncatedLayers\":" + this.truncatedCount
+                + ",\"cacheHits\":" + this.cacheHitCount + ",\"cacheMisses\":" + this.cacheMissCount
+                + ",\"stored\":" + this.fromStore + "}";
+    }
+}
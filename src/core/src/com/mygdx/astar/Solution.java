@@ -0,0 +1,68 @@
+package com.mygdx.astar;
+
+import java.util.ArrayList;
+
+public class Solution {
+
+    private String moves;
+    private SearchMetrics metrics;
+
+    /**
+     * Constructs a Solution object which holds the result of a search and its metrics.
+     * The path is encoded into moves right away, so the search vertices it goes through
+     * don't outlive the search.
+     *
+     * @param staticMap the static map elements of the level searched
+     * @param path the path found, from the goal state back to the starting state, empty if none was found
+     * @param metrics the counters and phase timings of the search
+     */
+    public Solution(StaticMap staticMap, ArrayList<MyVertex> path, SearchMetrics metrics) {
+        this(path.isEmpty() ? null : MoveString.encode(staticMap, path), metrics);
+    }
+
+    /**
+     * Constructs a Solution object which holds already encoded moves and their metrics.
+     *
+     * @param moves the moves from the starting state to the goal state, null if none were found
+     * @param metrics the counters and phase timings of the search
+     */
+    public Solution(String moves, SearchMetrics metrics) {
+        this.moves = moves;
+        this.metrics = metrics;
+    }
+
+    /**
+     * @return whether a path to the goal state was found
+     */
+    public boolean isSolved() {
+        return this.moves != null;
+    }
+
+    /**
+     * @return the moves from the starting state to the goal state as encoded by MoveString, null if none were found
+     */
+    public String getMoves() {
+        return this.moves;
+    }
+
+    /**
+     * @return the number of moves in the path, -1 if none was found
+     */
+    public int getMoveCount() {
+        return this.moves == null ? -1 : this.moves.length();
+    }
+
+    /**
+     * @return the counters and phase timings of the search
+     */
+    public SearchMetrics getMetrics() {
+        return this.metrics;
+    }
+
+    /**
+     * @return the search time in milliseconds
+     */
+    public long getElapsedTime() {
+        return this.metrics.getTotalTime() / 1000000;
+    }
+}
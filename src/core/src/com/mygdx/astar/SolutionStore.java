@@ -0,0 +1,263 @@
+package com.mygdx.astar;
+
+import com.badlogic.gdx.math.Vector2;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Properties;
+
+public class SolutionStore {
+
+    // Default size cap of the stored solutions, a few hundred bytes each
+    public static final long defaultMaxBytes = 4L << 20;
+
+    private static final String extension = ".sol";
+
+    // 64-bit FNV-1a, hashes the level contents into the file name
+    private static final long fnvOffset = 0xcbf29ce484222325L;
+    private static final long fnvPrime = 0x100000001b3L;
+
+    private File directory;
+    private long maxBytes;
+
+    /**
+     * Constructs a SolutionStore object which keeps solutions on disk, one properties file per
+     * level and solver configuration. Files are named after the level, a hash of its walls,
+     * goals, boxes and player, and a hash of the configuration, so editing a level makes its
+     * old solutions unreachable. They are deleted the next time the level is looked up.
+     *
+     * @param directory the directory to keep the solutions in, created on the first store
+     * @param maxBytes the size the solutions are trimmed back to, least recently used first
+     */
+    public SolutionStore(File directory, long maxBytes) {
+        this.directory = directory;
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Looks up the solution stored for a level and configuration. Solutions of an earlier
+     * version of the level are deleted, and unreadable files count as missing.
+     *
+     * @param level the level solved
+     * @param config the description of the solver configuration
+     * @return the stored properties, null if none are stored
+     */
+    public Properties load(Level level, String config) {
+
+        String levelHash = hex(levelHash(level));
+        this.deleteStale(level, levelHash);
+
+        File file = this.fileFor(level, levelHash, config);
+        if(!file.isFile()) return null;
+
+        Properties props = new Properties();
+        try {
+            InputStream in = new FileInputStream(file);
+            try {
+                props.load(in);
+            } finally {
+                in.close();
+            }
+        } catch(IOException e) {
+            if(AStar.debugFlag) System.out.println("Unreadable stored solution " + file + ": " + e.getMessage());
+            return null;
+        }
+
+        // Guard against a hash collision between configurations
+        if(!config.equals(props.getProperty("config"))) return null;
+
+        // Most recently used files are the last ones trimmed
+        file.setLastModified(System.currentTimeMillis());
+
+        return props;
+    }
+
+    /**
+     * Stores the solution properties of a level and configuration, replacing any stored
+     * before, then trims the store back under its size cap.
+     *
+     * @param level the level solved
+     * @param config the description of the solver configuration
+     * @param props the properties to store
+     * @throws IOException if the file can't be written
+     */
+    public void save(Level level, String config, Properties props) throws IOException {
+
+        if(!this.directory.isDirectory() && !this.directory.mkdirs()) throw new IOException("Can't create " + this.directory);
+
+        props.setProperty("level", level.getName());
+        props.setProperty("config", config);
+
+        File file = this.fileFor(level, hex(levelHash(level)), config);
+        File temp = new File(this.directory, file.getName() + ".tmp");
+
+        // Write next to it and rename, so a crash never leaves half a solution behind
+        OutputStream out = new FileOutputStream(temp);
+        try {
+            props.store(out, null);
+        } finally {
+            out.close();
+        }
+
+        if(file.exists() && !file.delete() || !temp.renameTo(file)) {
+            temp.delete();
+            throw new IOException("Can't replace " + file);
+        }
+
+        this.trim();
+    }
+
+    /**
+     * Deletes every stored solution.
+     */
+    public void clear() {
+        for(File file : this.storedFiles()) file.delete();
+    }
+
+    /**
+     * @return the directory the solutions are kept in
+     */
+    public File getDirectory() {
+        return this.directory;
+    }
+
+    /**
+     * @return the size the solutions are trimmed back to
+     */
+    public long getMaxBytes() {
+        return this.maxBytes;
+    }
+
+    /**
+     * Deletes the least recently used solutions until the rest fit in the size cap.
+     */
+    private void trim() {
+
+        File[] files = this.storedFiles();
+        long total = 0;
+        for(File file : files) total += file.length();
+        if(total <= this.maxBytes) return;
+
+        Arrays.sort(files, new Comparator<File>() {
+            @Override
+            public int compare(File a, File b) {
+                long diff = a.lastModified() - b.lastModified();
+                return diff < 0 ? -1 : diff > 0 ? 1 : 0;
+            }
+        });
+
+        for(int i = 0; i < files.length && total > this.maxBytes; i++) {
+            long length = files[i].length();
+            if(files[i].delete()) total -= length;
+        }
+    }
+
+    /**
+     * Deletes the solutions of the level stored when it had different contents.
+     *
+     * @param level the level looked up
+     * @param levelHash the hash of the current level contents
+     */
+    private void deleteStale(Level level, String levelHash) {
+
+        String prefix = fileSafe(level.getName()) + "-";
+
+        for(File file : this.storedFiles()) {
+
+            // Name is the prefix, the level hash, a dash, the config hash and the extension
+            String name = file.getName();
+            if(name.length() != prefix.length() + 16 + 1 + 16 + extension.length() || !name.startsWith(prefix)) continue;
+
+            if(!name.startsWith(levelHash, prefix.length())) {
+                if(AStar.debugFlag) System.out.println("Deleting stale solution " + name);
+                file.delete();
+            }
+        }
+    }
+
+    /**
+     * @return the solution files in the store directory
+     */
+    private File[] storedFiles() {
+
+        File[] files = this.directory.listFiles();
+        if(files == null) return new File[0];
+
+        ArrayList<File> stored = new ArrayList<File>();
+        for(File file : files) {
+            if(file.isFile() && file.getName().endsWith(extension)) stored.add(file);
+        }
+
+        return stored.toArray(new File[stored.size()]);
+    }
+
+    /**
+     * @param level the level solved
+     * @param levelHash the hash of the level contents
+     * @param config the description of the solver configuration
+     * @return the file the solution is stored in
+     */
+    private File fileFor(Level level, String levelHash, String config) {
+
+        long configHash = fnvOffset;
+        for(int i = 0; i < config.length(); i++) configHash = (configHash ^ config.charAt(i)) * fnvPrime;
+
+        return new File(this.directory, fileSafe(level.getName()) + "-" + levelHash + "-" + hex(configHash) + extension);
+    }
+
+    /**
+     * Hashes everything the solution depends on, the map size and the entity coordinates.
+     * The level name is left out so renaming a level file keeps its contents hash.
+     *
+     * @param level the level to hash
+     * @return the hash of the level contents
+     */
+    private static long levelHash(Level level) {
+
+        long hash = fnvOffset;
+        hash = (hash ^ level.getWidth()) * fnvPrime;
+        hash = (hash ^ level.getHeight()) * fnvPrime;
+
+        // Lists are separated so moving an entity between them changes the hash
+        ArrayList<ArrayList<Vector2>> lists = new ArrayList<ArrayList<Vector2>>();
+        lists.add(level.getWalls());
+        lists.add(level.getGoals());
+        lists.add(level.getBoxes());
+
+        for(ArrayList<Vector2> list : lists) {
+            hash = (hash ^ list.size()) * fnvPrime;
+            for(Vector2 coords : list) {
+                hash = (hash ^ (int) coords.x) * fnvPrime;
+                hash = (hash ^ (int) coords.y) * fnvPrime;
+            }
+        }
+
+        hash = (hash ^ (int) level.getPlayer().x) * fnvPrime;
+        hash = (hash ^ (int) level.getPlayer().y) * fnvPrime;
+
+        return hash;
+    }
+
+    /**
+     * @param value the value to format
+     * @return the value as 16 hexadecimal digits
+     */
+    private static String hex(long value) {
+        return String.format("%016x", value);
+    }
+
+    /**
+     * @param name the level name
+     * @return the name with anything but letters, digits, dots and underscores replaced
+     */
+    private static String fileSafe(String name) {
+        return name.replaceAll("[^A-Za-z0-9._]", "_");
+    }
+}
@@ -0,0 +1,112 @@
+package com.mygdx.astar;
+
+public class SolveTask implements Runnable {
+
+    private Solver solver;
+    private SearchEngine search;
+    private MyVertex.FCostMethod method;
+    private MyVertex.HeuristicMethod heuristic;
+    private int turnCost;
+
+    // Set once by the worker thread when the search ends
+    private volatile Solution solution;
+
+    /**
+     * Constructs a SolveTask object which runs a search on a background thread so the
+     * caller can keep going, poll its progress and cancel it.
+     *
+     * @param solver the solver holding the level, its precomputed tables and the engine to use
+     * @param method the method to use for calculating f()
+     * @param heuristic the heuristic to use for calculating h()
+     * @param turnCost the cost of boxes changing direction
+     */
+    public SolveTask(Solver solver, MyVertex.FCostMethod method, MyVertex.HeuristicMethod heuristic, int turnCost) {
+        this.solver = solver;
+        this.search = solver.createEngine();
+        this.method = method;
+        this.heuristic = heuristic;
+        this.turnCost = turnCost;
+    }
+
+    /**
+     * Starts the search on a new daemon thread.
+     */
+    public void start() {
+
+        Thread thread = new Thread(this, "Solver");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @Override
+    public void run() {
+
+        Solution solution = null;
+
+        // Always hand back a solution so whoever is polling doesn't wait forever
+        try {
+            solution = this.solver.solve(this.search, this.method, this.heuristic, this.turnCost);
+        } catch(OutOfMemoryError e) {
+            System.out.println("Error: ran out of memory while searching!");
+        } finally {
+            if(solution == null) solution = new Solution(null, this.search.getMetrics());
+            this.solution = solution;
+        }
+    }
+
+    /**
+     * Asks the search to stop, it ends with an empty solution shortly after.
+     */
+    public void cancel() {
+        this.search.cancel();
+    }
+
+    /**
+     * @return whether the search was asked to stop
+     */
+    public boolean isCancelled() {
+        return this.search.isCancelled();
+    }
+
+    /**
+     * @return whether the search ended and its solution is available
+     */
+    public boolean isDone() {
+        return this.solution != null;
+    }
+
+    /**
+     * @return the solution of the search, null while still running
+     */
+    public Solution getSolution() {
+        return this.solution;
+    }
+
+    /**
+     * @return the number of vertices expanded so far, updated every few expansions
+     */
+    public int getExpandedCount() {
+        return this.search.getProgressExpanded();
+    }
+
+    /**
+     * @return the lowest f() cost in the open list, updated every few expansions
+     */
+    public int getBestCost() {
+        return this.search.getProgressBestCost();
+    }
+
+    /**
+     * @return the moves of the best solution an anytime search found so far, null if there's none yet
+     */
+    public String getBestMoves() {
+        return this.search.getBestMoves();
+    }
+
+    /**
+     * @return how many times longer than optimal the best solution so far can be at most
+     */
+    public float getBestBound() {
+        return this.search.getBestBound();
+    }
+}
@@ -0,0 +1,535 @@
+package com.mygdx.astar;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Properties;
+
+public class Solver {
+
+    public enum Engine {ASTAR, IDA_STAR, BIDIRECTIONAL, HDA_STAR, PARALLEL_BFS, ARA_STAR, BEAM}
+
+    // Default IDA* transposition table size, 2^18 entries
+    private static final int defaultTranspositionBits = 18;
+
+    // Default parallel breadth-first state table size, 2^20 slots
+    private static final int defaultStateTableBits = 20;
+
+    // Default anytime search heuristic weights, from the first one down to 1
+    private static final float defaultInitialWeight = 3.0f;
+    private static final float defaultWeightStep = 0.5f;
+
+    // Default beam search width and recent state window, 2^16 states
+    public static final int defaultBeamWidth = 1000;
+    private static final int defaultBeamWindowBits = 16;
+
+    // Default heuristic cache size, 2^16 box configurations
+    private static final int defaultHeuristicCacheBits = 16;
+
+    // Default size cap of the external memory, 4 GB of segment and index files
+    public static final long defaultExternalMaxBytes = 4L << 30;
+
+    private Level level;
+    private StaticMap staticMap;
+    private GoalDistances goalDistances;
+    private HashMap<Integer, GoalDistances> turnDistances = new HashMap<Integer, GoalDistances>();
+    private HashMap<String, HeuristicCache> heuristicCaches = new HashMap<String, HeuristicCache>();
+    private MoveGenerator moveGenerator;
+    private boolean timePhases = false;
+    private boolean normalizePlayer = false;
+    private Engine engine = Engine.ASTAR;
+    private int transpositionBits = defaultTranspositionBits;
+    private int threadCount = Runtime.getRuntime().availableProcessors();
+    private int stateTableBits = defaultStateTableBits;
+    private float initialWeight = defaultInitialWeight;
+    private float weightStep = defaultWeightStep;
+    private long timeBudget = 0;
+    private int vertexBudget = 0;
+    private int beamWidth = defaultBeamWidth;
+    private int beamWindowBits = defaultBeamWindowBits;
+    private int heuristicCacheBits = defaultHeuristicCacheBits;
+    private SolutionStore solutionStore;
+    private File externalDirectory;
+    private long externalMaxBytes = defaultExternalMaxBytes;
+
+    /**
+     * Constructs a Solver object which prepares everything a search on the given level needs.
+     * It doesn't depend on rendering so it can be used without an application running.
+     *
+     * @param level the level to solve
+     */
+    public Solver(Level level) {
+
+        this.level = level;
+        this.staticMap = new StaticMap(level.getWidth(), level.getHeight(), level.getWalls(), level.getGoals());
+        this.goalDistances = new GoalDistances(this.staticMap);
+        this.moveGenerator = new MoveGenerator(this.staticMap);
+
+        if(AStar.debugFlag) DebugPrint.getInstance().printVectorList("Walls", level.getWalls());
+    }
+
+    /**
+     * Runs the selected search engine on the level.
+     *
+     * @param method the method to use for calculating f()
+     * @param heuristic the heuristic to use for calculating h()
+     * @param turnCost the cost of boxes changing direction
+     * @return the path found and the search metrics
+     */
+    public Solution solve(MyVertex.FCostMethod method, MyVertex.HeuristicMethod heuristic, int turnCost) {
+        return this.solve(this.createEngine(), method, heuristic, turnCost);
+    }
+
+    /**
+     * Runs a search engine on the level, unless a solution for the current configuration is
+     * stored, and stores what it finds unless it was cancelled.
+     *
+     * @param search the engine to run, made by createEngine so it can be cancelled from another thread
+     * @param method the method to use for calculating f()
+     * @param heuristic the heuristic to use for calculating h()
+     * @param turnCost the cost of boxes changing direction
+     * @return the path found and the search metrics
+     */
+    public Solution solve(SearchEngine search, MyVertex.FCostMethod method, MyVertex.HeuristicMethod heuristic, int turnCost) {
+
+        Solution stored = this.loadSolution(method, heuristic, turnCost);
+        if(stored != null) return stored;
+
+        ArrayList<MyVertex> path = search.runAlgorithm(method, heuristic, turnCost);
+        Solution solution = new Solution(this.staticMap, path, search.getMetrics());
+
+        if(!search.isCancelled() && !this.saveSolution(method, heuristic, turnCost, solution)) {
+            System.err.println("Error: couldn't store the solution of " + this.level.getName());
+        }
+
+        return solution;
+    }
+
+    /**
+     * Looks up the solution stored for the level and the current configuration, replaying
+     * its moves from the start of the level to check they still solve it.
+     *
+     * @param method the method to use for calculating f()
+     * @param heuristic the heuristic to use for calculating h()
+     * @param turnCost the cost of boxes changing direction
+     * @return the stored solution with the metrics of the search that found it, null if none is stored
+     */
+    private Solution loadSolution(MyVertex.FCostMethod method, MyVertex.HeuristicMethod heuristic, int turnCost) {
+
+        if(this.solutionStore == null) return null;
+
+        long startTime = System.nanoTime();
+        Properties props = this.solutionStore.load(this.level, this.describeConfig(method, heuristic, turnCost));
+        if(props == null || props.getProperty("moves") == null) return null;
+
+        String moves = props.getProperty("moves");
+        SearchMetrics metrics = new SearchMetrics(this.timePhases);
+        metrics.setRun(this.level.getName(), method, heuristic, turnCost);
+
+        // A file that doesn't replay to the goal is as good as missing, the search stores over it
+        try {
+            Board board = new Board(this.staticMap, this.level.getBoxes(), this.level.getPlayer());
+            for(int i = 0; i < moves.length(); i++) board.move(moves.charAt(i));
+            if(!board.isSolved()) return null;
+            metrics.load(props);
+            metrics.setTotalTime(System.nanoTime() - startTime);
+            return new Solution(moves, metrics);
+        } catch(IllegalArgumentException e) {
+            if(AStar.debugFlag) System.out.println("Stored solution of " + this.level.getName() + " is invalid: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Stores a solution found for the level with the current configuration, as its moves and
+     * search metrics. Searches that found nothing or came from the store aren't stored.
+     *
+     * @param method the method used for calculating f()
+     * @param heuristic the heuristic used for calculating h()
+     * @param turnCost the cost of boxes changing direction
+     * @param solution the solution found
+     * @return whether the solution was stored or didn't need to be, false if writing it failed
+     */
+    private boolean saveSolution(MyVertex.FCostMethod method, MyVertex.HeuristicMethod heuristic, int turnCost, Solution solution) {
+
+        if(this.solutionStore == null || !solution.isSolved() || solution.getMetrics().isFromStore()) return true;
+
+        Properties props = new Properties();
+        props.setProperty("moves", solution.getMoves());
+        solution.getMetrics().save(props);
+
+        try {
+            this.solutionStore.save(this.level, this.describeConfig(method, heuristic, turnCost), props);
+            return true;
+        } catch(IOException e) {
+            if(AStar.debugFlag) System.out.println(e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Describes everything about the current configuration that can change the solution
+     * found, so solutions are only reused for the same settings. Thread counts and table
+     * sizes only change how fast a solution is found, so they're left out.
+     *
+     * @param method the method to use for calculating f()
+     * @param heuristic the heuristic to use for calculating h()
+     * @param turnCost the cost of boxes changing direction
+     * @return the description of the configuration
+     */
+    private String describeConfig(MyVertex.FCostMethod method, MyVertex.HeuristicMethod heuristic, int turnCost) {
+
+        String config = this.engine + " " + method + " " + heuristic + " turnCost=" + turnCost + " boxMoves=" + this.normalizePlayer;
+
+        switch(this.engine) {
+
+            case ARA_STAR:
+                return config + " weight=" + this.initialWeight + " weightStep=" + this.weightStep
+                        + " timeBudget=" + this.timeBudget + " vertexBudget=" + this.vertexBudget;
+
+            case BEAM:
+                return config + " beamWidth=" + this.beamWidth + " beamWindowBits=" + this.beamWindowBits;
+
+            default:
+                return config;
+        }
+    }
+
+    /**
+     * @return a new instance of the selected search engine for the level
+     */
+    public SearchEngine createEngine() {
+
+        switch(this.engine) {
+
+            case IDA_STAR:
+                return new IDAStarAlgo(this);
+
+            case BIDIRECTIONAL:
+                return new BidirectionalAlgo(this);
+
+            case HDA_STAR:
+                return new HDAStarAlgo(this);
+
+            case PARALLEL_BFS:
+                return new ParallelBFSAlgo(this);
+
+            case ARA_STAR:
+                return new ARAStarAlgo(this);
+
+            case BEAM:
+                return new BeamSearchAlgo(this);
+
+            default:
+                return new AStarAlgo(this);
+        }
+    }
+
+    /**
+     * @param engine the search engine to use
+     */
+    public void setEngine(Engine engine) {
+        this.engine = engine;
+    }
+
+    /**
+     * @return the search engine in use
+     */
+    public Engine getEngine() {
+        return this.engine;
+    }
+
+    /**
+     * @param transpositionBits the log2 of the IDA* transposition table size, 0 to disable it
+     */
+    public void setTranspositionBits(int transpositionBits) {
+        this.transpositionBits = transpositionBits;
+    }
+
+    /**
+     * @return the log2 of the IDA* transposition table size, 0 when disabled
+     */
+    public int getTranspositionBits() {
+        return this.transpositionBits;
+    }
+
+    /**
+     * @param stateTableBits the log2 of the number of states the parallel breadth-first engine can hold
+     */
+    public void setStateTableBits(int stateTableBits) {
+        this.stateTableBits = stateTableBits;
+    }
+
+    /**
+     * @return the log2 of the number of states the parallel breadth-first engine can hold
+     */
+    public int getStateTableBits() {
+        return this.stateTableBits;
+    }
+
+    /**
+     * @param initialWeight the heuristic weight the anytime search starts with
+     */
+    public void setInitialWeight(float initialWeight) {
+        this.initialWeight = initialWeight;
+    }
+
+    /**
+     * @return the heuristic weight the anytime search starts with
+     */
+    public float getInitialWeight() {
+        return this.initialWeight;
+    }
+
+    /**
+     * @param weightStep how much the anytime search lowers the heuristic weight after each solution
+     */
+    public void setWeightStep(float weightStep) {
+        this.weightStep = weightStep;
+    }
+
+    /**
+     * @return how much the anytime search lowers the heuristic weight after each solution
+     */
+    public float getWeightStep() {
+        return this.weightStep;
+    }
+
+    /**
+     * @param timeBudget the milliseconds the anytime search may take before settling for its best solution, 0 for no limit
+     */
+    public void setTimeBudget(long timeBudget) {
+        this.timeBudget = timeBudget;
+    }
+
+    /**
+     * @return the milliseconds the anytime search may take, 0 for no limit
+     */
+    public long getTimeBudget() {
+        return this.timeBudget;
+    }
+
+    /**
+     * @param vertexBudget the vertices the anytime search may keep before settling for its best solution, 0 for no limit
+     */
+    public void setVertexBudget(int vertexBudget) {
+        this.vertexBudget = vertexBudget;
+    }
+
+    /**
+     * @return the vertices the anytime search may keep, 0 for no limit
+     */
+    public int getVertexBudget() {
+        return this.vertexBudget;
+    }
+
+    /**
+     * @param beamWidth the number of states the beam search keeps in each layer, its path trace holds at most 256 layers of them
+     */
+    public void setBeamWidth(int beamWidth) {
+        this.beamWidth = beamWidth;
+    }
+
+    /**
+     * @return the number of states the beam search keeps in each layer
+     */
+    public int getBeamWidth() {
+        return this.beamWidth;
+    }
+
+    /**
+     * @param beamWindowBits the log2 of the number of recent states the beam search checks duplicates against
+     */
+    public void setBeamWindowBits(int beamWindowBits) {
+        this.beamWindowBits = beamWindowBits;
+    }
+
+    /**
+     * @return the log2 of the number of recent states the beam search checks duplicates against
+     */
+    public int getBeamWindowBits() {
+        return this.beamWindowBits;
+    }
+
+    /**
+     * Sets the size of the heuristic caches, emptying the ones already filled.
+     *
+     * @param heuristicCacheBits the log2 of the number of box configurations each heuristic cache holds, 0 to disable them
+     */
+    public void setHeuristicCacheBits(int heuristicCacheBits) {
+        this.heuristicCacheBits = heuristicCacheBits;
+        this.heuristicCaches.clear();
+    }
+
+    /**
+     * @return the log2 of the number of box configurations each heuristic cache holds, 0 when disabled
+     */
+    public int getHeuristicCacheBits() {
+        return this.heuristicCacheBits;
+    }
+
+    /**
+     * @param solutionStore where to look up solutions before searching and store them after, null to always search
+     */
+    public void setSolutionStore(SolutionStore solutionStore) {
+        this.solutionStore = solutionStore;
+    }
+
+    /**
+     * @return where solutions are looked up and stored, null when every solve searches
+     */
+    public SolutionStore getSolutionStore() {
+        return this.solutionStore;
+    }
+
+    /**
+     * Sets where the A* engine keeps its nodes. With a directory they go to memory-mapped
+     * files under it, deleted once the search ends, so searches can reach more states than fit
+     * in memory at the cost of paging.
+     *
+     * @param directory the directory for the node segment and index files, null to keep nodes on the heap
+     * @param maxBytes the most bytes the segment and index files of one search may take
+     */
+    public void setExternalMemory(File directory, long maxBytes) {
+        this.externalDirectory = directory;
+        this.externalMaxBytes = maxBytes;
+    }
+
+    /**
+     * @return the directory for the node segment and index files, null when nodes are kept on the heap
+     */
+    public File getExternalDirectory() {
+        return this.externalDirectory;
+    }
+
+    /**
+     * @return the most bytes the segment and index files of one search may take
+     */
+    public long getExternalMaxBytes() {
+        return this.externalMaxBytes;
+    }
+
+    /**
+     * @return a new node store on the heap, or in segment files when external memory is set
+     */
+    public NodeStore createNodeStore() {
+        if(this.externalDirectory == null) return new NodeArena(this.staticMap);
+        return new MappedNodeArena(this.staticMap, this.externalDirectory, this.externalMaxBytes);
+    }
+
+    /**
+     * @param threadCount the number of worker threads of the parallel engines
+     */
+    public void setThreadCount(int threadCount) {
+        this.threadCount = threadCount;
+    }
+
+    /**
+     * @return the number of worker threads of the parallel engines, all cores by default
+     */
+    public int getThreadCount() {
+        return this.threadCount;
+    }
+
+    /**
+     * @param timePhases whether searches should time their phases on top of the whole search
+     */
+    public void setTimePhases(boolean timePhases) {
+        this.timePhases = timePhases;
+    }
+
+    /**
+     * @return whether searches time their phases
+     */
+    public boolean isTimingPhases() {
+        return this.timePhases;
+    }
+
+    /**
+     * Sets whether searches only expand box moves, treating board states where the player
+     * stands anywhere in the same region as one vertex. The cost then counts box moves and
+     * the walking in between is filled back in once a solution is found.
+     *
+     * @param normalizePlayer whether searches should only expand box moves
+     */
+    public void setNormalizePlayer(boolean normalizePlayer) {
+        this.normalizePlayer = normalizePlayer;
+    }
+
+    /**
+     * @return whether searches only expand box moves
+     */
+    public boolean isNormalizingPlayer() {
+        return this.normalizePlayer;
+    }
+
+    /**
+     * @return the level being solved
+     */
+    public Level getLevel() {
+        return this.level;
+    }
+
+    /**
+     * @return the static map elements of the level
+     */
+    public StaticMap getStaticMap() {
+        return this.staticMap;
+    }
+
+    /**
+     * @return the move generator for the level
+     */
+    public MoveGenerator getMoveGenerator() {
+        return this.moveGenerator;
+    }
+
+    /**
+     * @return the goal to cell distances of the level
+     */
+    public GoalDistances getGoalDistances() {
+        return this.goalDistances;
+    }
+
+    /**
+     * Gets the turn weighted goal to cell distances of the level, flooding
+     * the map the first time a turn cost is used.
+     *
+     * @param turnCost how much each change of direction weighs in the distance
+     * @return the turn weighted goal to cell distances of the level
+     */
+    public GoalDistances getTurnDistances(int turnCost) {
+
+        GoalDistances distances = this.turnDistances.get(turnCost);
+        if(distances == null) {
+            distances = new GoalDistances(this.staticMap, turnCost);
+            this.turnDistances.put(turnCost, distances);
+        }
+
+        return distances;
+    }
+
+    /**
+     * Gets the heuristic cache for a heuristic, creating it the first time the heuristic is
+     * used. Caches live as long as the solver, so solving the level again starts warm.
+     * They are not thread safe, only single threaded searches should use them.
+     *
+     * @param heuristic the heuristic the cached costs were computed with
+     * @param turnCost how much each change of direction weighs, only matters for the turns heuristic
+     * @return the heuristic cache, null when caching is disabled
+     */
+    public HeuristicCache getHeuristicCache(MyVertex.HeuristicMethod heuristic, int turnCost) {
+
+        if(this.heuristicCacheBits <= 0) return null;
+
+        String key = heuristic == MyVertex.HeuristicMethod.TURNS ? heuristic + "/" + turnCost : heuristic.toString();
+        HeuristicCache cache = this.heuristicCaches.get(key);
+        if(cache == null) {
+            cache = new HeuristicCache(this.heuristicCacheBits);
+            this.heuristicCaches.put(key, cache);
+        }
+
+        return cache;
+    }
+}
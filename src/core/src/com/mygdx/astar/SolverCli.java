@@ -0,0 +1,141 @@
+package com.mygdx.astar;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+
+public class SolverCli {
+
+    private static final String usage = "Usage: SolverCli [--help] [--method BOTH|G_ONLY|H_ONLY] [--heuristic CLOSEST_BOX|TURNS] [--turn-cost N] [--format text|csv|json] [--phase-timings] [--box-moves] [--engine ASTAR|IDA_STAR|BIDIRECTIONAL|HDA_STAR|PARALLEL_BFS|ARA_STAR|BEAM] [--tt-bits N] [--threads N] [--table-bits N] [--weight W] [--weight-step S] [--time-budget MS] [--vertex-budget N] [--beam-width K] [--beam-window-bits N] [--h-cache-bits N] [--store DIR] [--store-max-kb N] [--external-dir DIR] [--external-max-mb N] LevelN.tmx...";
+
+    /**
+     * Solves each of the given Tiled (TMX) maps without starting the game window and prints
+     * the solution length and search metrics for each one, as text, CSV rows or one JSON
+     * object per line.
+     *
+     * @param args the search options followed by the map files to solve
+     */
+    public static void main(String[] args) {
+
+        MyVertex.FCostMethod method = MyVertex.FCostMethod.BOTH;
+        MyVertex.HeuristicMethod heuristic = MyVertex.HeuristicMethod.CLOSEST_BOX;
+        int turnCost = 0;
+        String format = "text";
+        boolean timePhases = false;
+        boolean normalizePlayer = false;
+        Solver.Engine engine = Solver.Engine.ASTAR;
+        int transpositionBits = -1;
+        int threadCount = -1;
+        int stateTableBits = -1;
+        float initialWeight = -1;
+        float weightStep = -1;
+        long timeBudget = 0;
+        int vertexBudget = 0;
+        int beamWidth = -1;
+        int beamWindowBits = -1;
+        int heuristicCacheBits = -1;
+        File storeDir = null;
+        long storeMaxBytes = SolutionStore.defaultMaxBytes;
+        File externalDir = null;
+        long externalMaxBytes = Solver.defaultExternalMaxBytes;
+        ArrayList<File> files = new ArrayList<File>();
+
+        // Parse options, everything else is a map file
+        try {
+            for(int i = 0; i < args.length; i++) {
+
+                // Asking for help isn't an error, print the usage and leave before solving anything
+                if(args[i].equals("--help") || args[i].equals("-h")) {
+                    System.out.println(usage);
+                    System.exit(0);
+                }
+
+                if(args[i].equals("--method")) method = MyVertex.FCostMethod.valueOf(args[++i].toUpperCase());
+                else if(args[i].equals("--heuristic")) heuristic = MyVertex.HeuristicMethod.valueOf(args[++i].toUpperCase());
+                else if(args[i].equals("--turn-cost")) turnCost = Integer.parseInt(args[++i]);
+                else if(args[i].equals("--format")) format = args[++i].toLowerCase();
+                else if(args[i].equals("--phase-timings")) timePhases = true;
+                else if(args[i].equals("--box-moves")) normalizePlayer = true;
+                else if(args[i].equals("--engine")) engine = Solver.Engine.valueOf(args[++i].toUpperCase());
+                else if(args[i].equals("--tt-bits")) transpositionBits = Integer.parseInt(args[++i]);
+                else if(args[i].equals("--threads")) threadCount = Integer.parseInt(args[++i]);
+                else if(args[i].equals("--table-bits")) stateTableBits = Integer.parseInt(args[++i]);
+                else if(args[i].equals("--weight")) initialWeight = Float.parseFloat(args[++i]);
+                else if(args[i].equals("--weight-step")) weightStep = Float.parseFloat(args[++i]);
+                else if(args[i].equals("--time-budget")) timeBudget = Long.parseLong(args[++i]);
+                else if(args[i].equals("--vertex-budget")) vertexBudget = Integer.parseInt(args[++i]);
+                else if(args[i].equals("--beam-width")) beamWidth = Integer.parseInt(args[++i]);
+                else if(args[i].equals("--beam-window-bits")) beamWindowBits = Integer.parseInt(args[++i]);
+                else if(args[i].equals("--h-cache-bits")) heuristicCacheBits = Integer.parseInt(args[++i]);
+                else if(args[i].equals("--store")) storeDir = new File(args[++i]);
+                else if(args[i].equals("--store-max-kb")) storeMaxBytes = Long.parseLong(args[++i]) * 1024;
+                else if(args[i].equals("--external-dir")) externalDir = new File(args[++i]);
+                else if(args[i].equals("--external-max-mb")) externalMaxBytes = Long.parseLong(args[++i]) << 20;
+                else if(args[i].startsWith("-")) throw new IllegalArgumentException("Unknown option " + args[i]);
+                else files.add(new File(args[i]));
+            }
+        } catch(RuntimeException e) {
+            System.err.println(usage);
+            System.exit(2);
+        }
+
+        if(files.isEmpty() || !(format.equals("text") || format.equals("csv") || format.equals("json"))) {
+            System.err.println(usage);
+            System.exit(2);
+        }
+
+        LevelReader reader = new LevelReader();
+        SolutionStore store = storeDir != null ? new SolutionStore(storeDir, storeMaxBytes) : null;
+        boolean allSolved = true;
+
+        if(format.equals("csv")) System.out.println(SearchMetrics.csvHeader());
+
+        for(File file : files) {
+
+            Level level;
+            try {
+                level = reader.read(file);
+            } catch(IOException e) {
+                System.err.println("Error: " + e.getMessage());
+                allSolved = false;
+                continue;
+            }
+
+            Solver solver = new Solver(level);
+            solver.setTimePhases(timePhases);
+            solver.setNormalizePlayer(normalizePlayer);
+            solver.setEngine(engine);
+            if(transpositionBits >= 0) solver.setTranspositionBits(transpositionBits);
+            if(threadCount > 0) solver.setThreadCount(threadCount);
+            if(stateTableBits > 0) solver.setStateTableBits(stateTableBits);
+            if(initialWeight >= 1) solver.setInitialWeight(initialWeight);
+            if(weightStep > 0) solver.setWeightStep(weightStep);
+            solver.setTimeBudget(timeBudget);
+            solver.setVertexBudget(vertexBudget);
+            if(beamWidth > 0) solver.setBeamWidth(beamWidth);
+            if(beamWindowBits > 0) solver.setBeamWindowBits(beamWindowBits);
+            if(heuristicCacheBits >= 0) solver.setHeuristicCacheBits(heuristicCacheBits);
+            solver.setSolutionStore(store);
+            solver.setExternalMemory(externalDir, externalMaxBytes);
+            Solution solution = solver.solve(method, heuristic, turnCost);
+            allSolved &= solution.isSolved();
+
+            SearchMetrics metrics = solution.getMetrics();
+            if(format.equals("csv")) System.out.println(metrics.toCsv());
+            else if(format.equals("json")) System.out.println(metrics.toJson());
+            else System.out.println(level.getName()
+                    + " moves=" + (solution.isSolved() ? String.valueOf(solution.getMoveCount()) : "none")
+                    + " expanded=" + metrics.getExpandedCount()
+                    + " generated=" + metrics.getGeneratedCount()
+                    + " openPeak=" + metrics.getOpenPeak()
+                    + (metrics.getSuboptimalityBound() > 0 ? " bound=" + metrics.getSuboptimalityBound() : "")
+                    + (metrics.getTruncatedCount() > 0 ? " truncatedLayers=" + metrics.getTruncatedCount() : "")
+                    + (metrics.getCacheHitCount() + metrics.getCacheMissCount() > 0 ? " cacheHits=" + metrics.getCacheHitCount()
+                            + " cacheMisses=" + metrics.getCacheMissCount() : "")
+                    + (metrics.isFromStore() ? " stored" : "")
+                    + " time=" + solution.getElapsedTime() / 1000.0f + "s");
+        }
+
+        if(!allSolved) System.exit(1);
+    }
+}
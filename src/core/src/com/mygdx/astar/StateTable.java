@@ -0,0 +1,288 @@
+package com.mygdx.astar;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+public class StateTable {
+
+    // Fullest the table is allowed to get, linear probing slows down sharply past it
+    private static final float maxLoadFactor = 0.9f;
+
+    // Slot states, a claimed slot is being written and only readable once ready
+    private static final int empty = 0;
+    private static final int claimed = 1;
+    private static final int ready = 2;
+
+    private int wordCount;
+    private int capacity;
+    private int mask;
+    private int maxSize;
+    private AtomicInteger size = new AtomicInteger();
+
+    // Parallel slot arrays, the state words take wordCount longs per slot
+    private AtomicIntegerArray states;
+    private long[] hashes;
+    private long[] words;
+    private int[] players;
+    private int[] boxMoves;
+
+    // g() and parent slot packed together, written once before the slot is published
+    private long[] links;
+
+    /**
+     * Constructs a StateTable object which stores packed board states in fixed size parallel
+     * arrays instead of vertex objects, with open addressing and linear probing. Inserts claim
+     * their slot with a compare and swap so several threads can share the table. Each slot
+     * takes 8 bytes per box word plus 28, so 2^26 slots for a level of up to 64 cells take 2.4 GB.
+     *
+     * @param staticMap the static map elements of the level the states belong to
+     * @param capacityBits the log2 of the number of slots
+     * @throws IllegalArgumentException if the state words of that many slots don't fit in one array
+     */
+    public StateTable(StaticMap staticMap, int capacityBits) {
+
+        // The state words of every slot share one array
+        if(((long) staticMap.getWordCount() << capacityBits) > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("State table of 2^" + capacityBits + " slots is too large for this level");
+        }
+
+        this.wordCount = staticMap.getWordCount();
+        this.capacity = 1 << capacityBits;
+        this.mask = this.capacity - 1;
+        this.maxSize = (int) (this.capacity * maxLoadFactor);
+
+        this.states = new AtomicIntegerArray(this.capacity);
+        this.hashes = new long[this.capacity];
+        this.words = new long[this.capacity * this.wordCount];
+        this.players = new int[this.capacity];
+        this.boxMoves = new int[this.capacity];
+        this.links = new long[this.capacity];
+    }
+
+    /**
+     * Inserts the board state unless it's already in the table. A new state gets its g() cost,
+     * parent and box move written before it becomes visible to lookups from other threads.
+     *
+     * @param boxes the bitset with a bit set for each box cell
+     * @param player the player cell
+     * @param hash the Zobrist hash of the board state
+     * @param parent the slot of the state this one was reached from, -1 for none
+     * @param gCost the g() cost of the state
+     * @param boxMove the box move the state was reached with, -1 for none
+     * @return the slot of the new state, or -(slot + 1) if the state was already in the table
+     * @throws IllegalStateException if the table is too full to take another state
+     */
+    public int insert(long[] boxes, int player, long hash, int parent, int gCost, int boxMove) {
+
+        int slot = this.homeSlot(hash);
+
+        while(true) {
+
+            int state = this.states.get(slot);
+
+            // Claim the empty slot, then write it and publish it
+            if(state == empty) {
+
+                if(!this.states.compareAndSet(slot, empty, claimed)) continue;
+
+                if(this.size.incrementAndGet() > this.maxSize) {
+                    this.size.decrementAndGet();
+                    this.links[slot] = 0;
+                    this.states.set(slot, empty);
+                    throw new IllegalStateException("State table is full at " + this.capacity + " slots");
+                }
+
+                this.hashes[slot] = hash;
+                System.arraycopy(boxes, 0, this.words, slot * this.wordCount, this.wordCount);
+                this.players[slot] = player;
+                this.boxMoves[slot] = boxMove;
+                this.links[slot] = this.packLink(gCost, parent);
+                this.states.set(slot, ready);
+
+                return slot;
+            }
+
+            // Another thread is writing this slot, wait until it can be compared
+            if(state == claimed) {
+                Thread.yield();
+                continue;
+            }
+
+            if(this.matches(slot, boxes, player, hash)) return -(slot + 1);
+
+            slot = (slot + 1) & this.mask;
+        }
+    }
+
+    /**
+     * Looks the board state up.
+     *
+     * @param boxes the bitset with a bit set for each box cell
+     * @param player the player cell
+     * @param hash the Zobrist hash of the board state
+     * @return the slot of the state, -1 if it's not in the table
+     */
+    public int find(long[] boxes, int player, long hash) {
+
+        int slot = this.homeSlot(hash);
+
+        while(true) {
+
+            int state = this.states.get(slot);
+            if(state == empty) return -1;
+
+            if(state == claimed) {
+                Thread.yield();
+                continue;
+            }
+
+            if(this.matches(slot, boxes, player, hash)) return slot;
+
+            slot = (slot + 1) & this.mask;
+        }
+    }
+
+    /**
+     * Builds a vertex holding the board state of a slot, with its g() cost and box move.
+     * The parent is left unset, it's a slot index in here.
+     *
+     * @param slot the slot of the state
+     * @return a new vertex for the state
+     */
+    public MyVertex toVertex(int slot) {
+
+        long[] boxes = new long[this.wordCount];
+        System.arraycopy(this.words, slot * this.wordCount, boxes, 0, this.wordCount);
+
+        MyVertex vert = new MyVertex(boxes, this.players[slot], this.hashes[slot]);
+        vert.setgCost(this.getgCost(slot));
+        vert.setBoxMove(this.boxMoves[slot]);
+
+        return vert;
+    }
+
+    /**
+     * @param slot the slot of the state
+     * @return the g() cost of the state
+     */
+    public int getgCost(int slot) {
+        return this.unpackCost(this.links[slot]);
+    }
+
+    /**
+     * @param slot the slot of the state
+     * @return the slot of the state it was reached from, -1 for none
+     */
+    public int getParent(int slot) {
+        return (int) this.links[slot];
+    }
+
+    /**
+     * @return the number of states in the table
+     */
+    public int size() {
+        return this.size.get();
+    }
+
+    /**
+     * @return the number of slots
+     */
+    public int getCapacity() {
+        return this.capacity;
+    }
+
+    /**
+     * @return the share of slots in use
+     */
+    public float getLoadFactor() {
+        return (float) this.size.get() / this.capacity;
+    }
+
+    /**
+     * Measures how far states sit from their home slot, by scanning the whole table.
+     * Meant for once the search ends, states inserted while scanning may be missed.
+     *
+     * @return the average number of slots probed to find a state in the table
+     */
+    public float getAverageProbeLength() {
+
+        long probes = 0;
+        int count = 0;
+
+        for(int slot = 0; slot < this.capacity; slot++) {
+            if(this.states.get(slot) != ready) continue;
+            probes += this.probeLength(slot);
+            count++;
+        }
+
+        return count == 0 ? 0 : (float) probes / count;
+    }
+
+    /**
+     * Measures the farthest a state sits from its home slot, by scanning the whole table.
+     *
+     * @return the highest number of slots probed to find a state in the table
+     */
+    public int getMaxProbeLength() {
+
+        int longest = 0;
+
+        for(int slot = 0; slot < this.capacity; slot++) {
+            if(this.states.get(slot) == ready) longest = Math.max(longest, this.probeLength(slot));
+        }
+
+        return longest;
+    }
+
+    /**
+     * @param slot a slot in use
+     * @return the number of slots probed to find the state in it, 1 if it's in its home slot
+     */
+    private int probeLength(int slot) {
+        return ((slot - this.homeSlot(this.hashes[slot])) & this.mask) + 1;
+    }
+
+    /**
+     * @param hash the Zobrist hash of a board state
+     * @return the slot probing starts from
+     */
+    private int homeSlot(long hash) {
+        return (int) (hash ^ (hash >>> 32)) & this.mask;
+    }
+
+    /**
+     * @param slot a slot in use
+     * @param boxes the bitset with a bit set for each box cell
+     * @param player the player cell
+     * @param hash the Zobrist hash of the board state
+     * @return whether the slot holds the given board state
+     */
+    private boolean matches(int slot, long[] boxes, int player, long hash) {
+
+        if(this.hashes[slot] != hash || this.players[slot] != player) return false;
+
+        int base = slot * this.wordCount;
+        for(int i = 0; i < this.wordCount; i++) {
+            if(this.words[base + i] != boxes[i]) return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * @param gCost the g() cost
+     * @param parent the parent slot, -1 for none
+     * @return both packed in one long
+     */
+    private long packLink(int gCost, int parent) {
+        return ((long) gCost << 32) | (parent & 0xFFFFFFFFL);
+    }
+
+    /**
+     * @param link the packed g() cost and parent slot
+     * @return the g() cost
+     */
+    private int unpackCost(long link) {
+        return (int) (link >>> 32);
+    }
+}
@@ -0,0 +1,235 @@
+package com.mygdx.astar;
+
+import com.badlogic.gdx.math.Vector2;
+
+import java.util.ArrayList;
+import java.util.Random;
+
+public class StaticMap {
+
+    // Fixed seed so Zobrist hashes are reproducible between runs
+    private static final long zobristSeed = 0x5DEECE66DL;
+
+    // Directions, in the order moves are generated
+    public static final int right = 0;
+    public static final int left = 1;
+    public static final int up = 2;
+    public static final int down = 3;
+    public static final int directionCount = 4;
+
+    private int width;
+    private int height;
+    private int stride;
+    private int cellCount;
+    private int wordCount;
+
+    // Wall grid with a border of sentinel walls around the map
+    private boolean[] walls;
+
+    // Adjacent cell in each direction for each cell, -1 outside the grid
+    private int[][] neighbours;
+
+    // Goal cells and the goal bitset used for goal checks
+    private int[] goalCells;
+    private long[] goalBits;
+
+    // Zobrist keys for a box and for the player on each cell
+    private long[] boxKeys;
+    private long[] playerKeys;
+
+    /**
+     * Constructs a StaticMap object which flattens the Tiled map into cell indices
+     * and stores the map elements that don't change during a search. The grid gets
+     * a border of walls so any cell next to a map cell can be read without bounds checks.
+     *
+     * @param width the map width in tiles
+     * @param height the map height in tiles
+     * @param walls the list of wall coordinates
+     * @param goals the list of goal coordinates
+     */
+    public StaticMap(int width, int height, ArrayList<Vector2> walls, ArrayList<Vector2> goals) {
+
+        this.width = width;
+        this.height = height;
+        this.stride = width + 2;
+        this.cellCount = this.stride * (height + 2);
+        this.wordCount = (this.cellCount + 63) >>> 6;
+
+        // Border cells are walls, map walls are added on top
+        this.walls = new boolean[this.cellCount];
+        for(int cell = 0; cell < this.cellCount; cell++) {
+            int x = cell % this.stride;
+            int y = cell / this.stride;
+            this.walls[cell] = x == 0 || y == 0 || x == this.stride - 1 || y == height + 1;
+        }
+
+        for(Vector2 wall : walls) {
+            this.walls[this.toCell(wall)] = true;
+        }
+
+        int[] offsets = new int[directionCount];
+        offsets[right] = 1;
+        offsets[left] = -1;
+        offsets[up] = this.stride;
+        offsets[down] = -this.stride;
+
+        this.neighbours = new int[directionCount][this.cellCount];
+        for(int dir = 0; dir < directionCount; dir++) {
+            for(int cell = 0; cell < this.cellCount; cell++) {
+                int adj = cell + offsets[dir];
+                boolean sameRow = dir == up || dir == down || adj / this.stride == cell / this.stride;
+                this.neighbours[dir][cell] = adj >= 0 && adj < this.cellCount && sameRow ? adj : -1;
+            }
+        }
+
+        this.goalCells = new int[goals.size()];
+        this.goalBits = new long[this.wordCount];
+
+        for(int i = 0; i < goals.size(); i++) {
+            int cell = this.toCell(goals.get(i));
+            this.goalCells[i] = cell;
+            this.goalBits[cell >>> 6] |= 1L << cell;
+        }
+
+        Random random = new Random(zobristSeed);
+        this.boxKeys = new long[this.cellCount];
+        this.playerKeys = new long[this.cellCount];
+
+        for(int cell = 0; cell < this.cellCount; cell++) {
+            this.boxKeys[cell] = random.nextLong();
+            this.playerKeys[cell] = random.nextLong();
+        }
+    }
+
+    /**
+     * @return the map width in tiles
+     */
+    public int getWidth() {
+        return this.width;
+    }
+
+    /**
+     * @return the map height in tiles
+     */
+    public int getHeight() {
+        return this.height;
+    }
+
+    /**
+     * @return the number of cells in the flattened map, border included
+     */
+    public int getCellCount() {
+        return this.cellCount;
+    }
+
+    /**
+     * @return the number of 64 bit words needed for a bitset over all cells
+     */
+    public int getWordCount() {
+        return this.wordCount;
+    }
+
+    /**
+     * @param cell the cell index to check, border included
+     * @return whether the cell is a wall or outside the map
+     */
+    public boolean isWall(int cell) {
+        return this.walls[cell];
+    }
+
+    /**
+     * @param coords the coordinates to check
+     * @return whether the coordinates are a wall or outside the map
+     */
+    public boolean isWall(Vector2 coords) {
+
+        if(coords.x < 0 || coords.y < 0 || coords.x > this.width - 1 || coords.y > this.height - 1) return true;
+        return this.walls[this.toCell(coords)];
+    }
+
+    /**
+     * @param direction the direction to move in
+     * @param cell the cell index to move from
+     * @return the adjacent cell in that direction, -1 outside the grid
+     */
+    public int getNeighbour(int direction, int cell) {
+        return this.neighbours[direction][cell];
+    }
+
+    /**
+     * @param direction the direction to use
+     * @return the direction pointing the opposite way
+     */
+    public static int opposite(int direction) {
+        return direction ^ 1;
+    }
+
+    /**
+     * @return the cell index of each goal
+     */
+    public int[] getGoalCells() {
+        return this.goalCells;
+    }
+
+    /**
+     * @return the bitset with a bit set for each goal cell
+     */
+    public long[] getGoalBits() {
+        return this.goalBits;
+    }
+
+    /**
+     * @param cell the cell index to use
+     * @return the Zobrist key of a box on the cell
+     */
+    public long getBoxKey(int cell) {
+        return this.boxKeys[cell];
+    }
+
+    /**
+     * @param cell the cell index to use
+     * @return the Zobrist key of the player on the cell
+     */
+    public long getPlayerKey(int cell) {
+        return this.playerKeys[cell];
+    }
+
+    /**
+     * Computes the full Zobrist hash of a board state. Successor states should
+     * instead update their parent hash with the keys of the cells that changed.
+     *
+     * @param boxes the bitset with a bit set for each box cell
+     * @param player the player cell
+     * @return the Zobrist hash of the board state
+     */
+    public long zobristHash(long[] boxes, int player) {
+
+        long hash = this.playerKeys[player];
+
+        for(int i = 0; i < boxes.length; i++) {
+            long word = boxes[i];
+            while(word != 0) {
+                hash ^= this.boxKeys[(i << 6) + Long.numberOfTrailingZeros(word)];
+                word &= word - 1;
+            }
+        }
+
+        return hash;
+    }
+
+    /**
+     * @param coords the coordinates to use
+     * @return the cell index for the coordinates
+     */
+    public int toCell(Vector2 coords) {
+        return ((int) coords.y + 1) * this.stride + (int) coords.x + 1;
+    }
+
+    /**
+     * @param cell the cell index to use
+     * @return the coordinates of the cell
+     */
+    public Vector2 toCoords(int cell) {
+        return new Vector2(cell % this.stride - 1, cell / this.stride - 1);
+    }
+}
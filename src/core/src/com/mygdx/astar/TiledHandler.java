@@ -79,6 +79,25 @@ public class TiledHandler {
         return list;
     }
 
+    /**
+     * Builds the level described by a Tiled map, the walls from the base layer and
+     * the goals, boxes and player from their own layers, to hand over to the solver.
+     *
+     * @param map the Tiled map to use
+     * @param name the level name
+     * @return the level described by the Tiled map
+     */
+    public Level createLevel(TiledMap map, String name) {
+
+        TiledMapTileLayer base = (TiledMapTileLayer) map.getLayers().get(AStar.baseLayer);
+        ArrayList<Vector2> walls = this.getEntities(base, AStar.wallType);
+        ArrayList<Vector2> goals = this.getEntities((TiledMapTileLayer) map.getLayers().get(AStar.goalLayer), AStar.goalType);
+        ArrayList<Vector2> boxes = this.getEntities((TiledMapTileLayer) map.getLayers().get(AStar.boxLayer), AStar.boxType);
+        Vector2 player = this.getEntities((TiledMapTileLayer) map.getLayers().get(AStar.playerLayer), AStar.playerType).get(0).cpy();
+
+        return new Level(name, base.getWidth(), base.getHeight(), walls, goals, boxes, player);
+    }
+
     /**
      * Draws a Tiled map's base layer to screen.
      *